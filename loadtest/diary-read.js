@@ -0,0 +1,33 @@
+// k6 부하 테스트: 목록/단건 조회를 고정 도착률로 보낸다.
+//   ./gradlew bootRun -PruntimeJava=21 --args='--spring.profiles.active=loadtest'
+//   k6 run -e BASE_URL=http://localhost:8080 -e RATE=500 loadtest/diary-read.js
+// 실행 중 /actuator/prometheus 의 hikaricp_connections_active / _pending,
+// tomcat_threads_busy_threads, jvm_threads_live_threads 를 함께 기록해 비교한다. 결과: loadtest/results/
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '200', 10);
+const AUTHORS = parseInt(__ENV.AUTHORS || '100', 10);
+
+export const options = {
+    scenarios: {
+        read: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: 5000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const author = `author-${Math.floor(Math.random() * AUTHORS)}`;
+    const res = Math.random() < 0.5
+        ? http.get(`${BASE_URL}/api/diaries?size=20`)
+        : http.get(`${BASE_URL}/api/diaries/author/${author}?size=20`);
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
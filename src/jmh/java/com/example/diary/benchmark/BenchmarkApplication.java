@@ -0,0 +1,21 @@
+package com.example.diary.benchmark;
+
+import com.example.diary.YesDiarySpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 스프링 컨텍스트를 bench 프로파일로 띄운다.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(YesDiarySpringApplication.class)
+                .profiles("bench")
+                .properties("server.port=0")
+                .run();
+    }
+}
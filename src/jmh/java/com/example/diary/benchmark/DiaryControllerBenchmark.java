@@ -0,0 +1,60 @@
+package com.example.diary.benchmark;
+
+import com.example.diary.service.DiaryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * MockMvc 를 통한 요청 단위 처리량 (디스패처, 직렬화 포함, 네트워크 제외).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DiaryControllerBenchmark {
+
+    private static final int DIARY_COUNT = 10_000;
+    private static final int AUTHOR_COUNT = 100;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        DiarySeedData.seed(context.getBean(DiaryService.class), DIARY_COUNT, AUTHOR_COUNT, 100);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getDiaries() throws Exception {
+        return mockMvc.perform(get("/api/diaries")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getDiariesByAuthor() throws Exception {
+        String author = DiarySeedData.author(ThreadLocalRandom.current().nextInt(AUTHOR_COUNT));
+        return mockMvc.perform(get("/api/diaries/author/{author}", author)).andReturn();
+    }
+}
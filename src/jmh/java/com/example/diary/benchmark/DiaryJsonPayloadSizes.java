@@ -0,0 +1,38 @@
+package com.example.diary.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * DiaryJsonSerializationBenchmark 와 같은 데이터로 응답 형식별 직렬화 크기(바이트)를 표로 출력한다.
+ * 직렬화 시간은 JMH 로 재고, 크기는 입력이 같으면 항상 같으므로 조합마다 한 번씩만 직렬화해 잰다.
+ *
+ * 실행: ./gradlew jmhPayloadSizes (결과 기록: src/jmh/results/payload-sizes.txt)
+ */
+public final class DiaryJsonPayloadSizes {
+
+    /** DiaryJsonSerializationBenchmark 의 @Param 값과 같아야 한다 */
+    private static final int[] CONTENT_WORDS = {50, 500};
+    private static final int[] LIST_SIZES = {1, 100, 1000};
+
+    private DiaryJsonPayloadSizes() {
+    }
+
+    public static void main(String[] args) throws JsonProcessingException {
+        System.out.printf("%12s %8s %12s %12s %8s %12s %8s%n",
+                "contentWords", "listSize", "default(B)", "compact(B)", "ratio", "fields(B)", "ratio");
+        for (int contentWords : CONTENT_WORDS) {
+            for (int listSize : LIST_SIZES) {
+                DiaryJsonSerializationBenchmark benchmark = new DiaryJsonSerializationBenchmark();
+                benchmark.contentWords = contentWords;
+                benchmark.listSize = listSize;
+                benchmark.setUp();
+
+                int full = benchmark.reusedWriter().length;
+                int compact = benchmark.compact().length;
+                int fields = benchmark.compactWithFields().length;
+                System.out.printf("%12d %8d %12d %12d %7.1f%% %12d %7.1f%%%n", contentWords, listSize,
+                        full, compact, 100.0 * compact / full, fields, 100.0 * fields / full);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.diary.benchmark;
+
+import com.example.diary.config.DiaryJsonWriters;
+import com.example.diary.dto.DiaryResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DiaryResponse 목록의 Jackson 직렬화 비용. 스프링 부트와 같은 설정(Jackson2ObjectMapperBuilder)을 쓴다.
+ * compact 계열은 ?compact=true(, &fields=) 응답과 같은 writer 를 쓴다.
+ * 형식별 응답 크기는 DiaryJsonPayloadSizes 로 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiaryJsonSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int listSize;
+
+    @Param({"50", "500"})
+    public int contentWords;
+
+    private List<DiaryResponse> responses;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private ObjectWriter compactWriter;
+    private ObjectWriter compactFieldsWriter;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, DiaryResponse.class));
+        DiaryJsonWriters writers = new DiaryJsonWriters(objectMapper);
+        compactWriter = writers.forRequest(true, null);
+        compactFieldsWriter = writers.forRequest(true, new HashSet<>(Arrays.asList("id", "title", "updatedAt")));
+
+        Random random = new Random(1);
+        LocalDateTime now = LocalDateTime.now();
+        responses = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            responses.add(DiaryResponse.builder()
+                    .id((long) i)
+                    .title(DiarySeedData.sentence(random, 4))
+                    .content(DiarySeedData.sentence(random, contentWords))
+                    .author(DiarySeedData.author(i % 10))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .version(0L)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] reusedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] compact() throws JsonProcessingException {
+        return compactWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] compactWithFields() throws JsonProcessingException {
+        return compactFieldsWriter.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.diary.benchmark;
+
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.entity.Diary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diary → DiaryResponse 매핑 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DiaryResponseMappingBenchmark {
+
+    private Diary diary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        diary = Diary.builder()
+                .title(DiarySeedData.sentence(random, 4))
+                .content(DiarySeedData.sentence(random, 200))
+                .author(DiarySeedData.author(0))
+                .build();
+    }
+
+    @Benchmark
+    public DiaryResponse from() {
+        return DiaryResponse.from(diary);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.diary.benchmark;
+
+import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.service.DiaryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 시드 데이터 생성기.
+ * 고정된 난수 시드를 쓰므로 실행할 때마다 같은 데이터가 만들어진다.
+ */
+public final class DiarySeedData {
+
+    private static final long RANDOM_SEED = 20_240_101L;
+    private static final int BATCH_SIZE = 500;
+    private static final String[] WORDS = {
+            "오늘은", "아침", "일찍", "일어나서", "산책을", "했다", "회사에서", "회의가", "길었다",
+            "저녁에는", "친구와", "맛있는", "음식을", "먹었다", "비가", "와서", "집에서", "책을", "읽었다",
+            "운동", "여행", "가족", "주말", "커피", "spring", "boot", "diary"
+    };
+
+    private DiarySeedData() {
+    }
+
+    public static String author(int index) {
+        return "author-" + index;
+    }
+
+    /**
+     * diaryCount 건의 일기를 authorCount 명의 작성자에게 고르게 나눠 생성한다.
+     */
+    public static void seed(DiaryService diaryService, int diaryCount, int authorCount, int contentWords) {
+        Random random = new Random(RANDOM_SEED);
+        List<DiaryCreateRequest> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < diaryCount; i++) {
+            batch.add(DiaryCreateRequest.builder()
+                    .title(sentence(random, 4))
+                    .content(sentence(random, contentWords))
+                    .author(author(i % authorCount))
+                    .build());
+            if (batch.size() == BATCH_SIZE) {
+                diaryService.createDiaries(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            diaryService.createDiaries(batch);
+        }
+    }
+
+    public static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
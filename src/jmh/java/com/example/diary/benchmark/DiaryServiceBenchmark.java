@@ -0,0 +1,73 @@
+package com.example.diary.benchmark;
+
+import com.example.diary.dto.CursorPageResponse;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySummaryResponse;
+import com.example.diary.repository.DiaryRepository;
+import com.example.diary.service.DiaryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시드 데이터가 들어 있는 내장 H2 에 대한 DiaryService 조회 경로 비용.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DiaryServiceBenchmark {
+
+    private static final int AUTHOR_COUNT = 100;
+
+    @Param({"10000"})
+    public int diaryCount;
+
+    private ConfigurableApplicationContext context;
+    private DiaryService diaryService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        diaryService = context.getBean(DiaryService.class);
+        DiarySeedData.seed(diaryService, diaryCount, AUTHOR_COUNT, 100);
+        firstId = context.getBean(DiaryRepository.class)
+                .findAll(PageRequest.of(0, 1, Sort.by("id")))
+                .getContent().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DiaryResponse getDiary() {
+        long id = firstId + ThreadLocalRandom.current().nextInt(diaryCount);
+        return diaryService.getDiary(id);
+    }
+
+    @Benchmark
+    public CursorPageResponse<DiarySummaryResponse> getDiariesByAuthor() {
+        String author = DiarySeedData.author(ThreadLocalRandom.current().nextInt(AUTHOR_COUNT));
+        return diaryService.getDiariesByAuthor(author, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPageResponse<DiarySummaryResponse> getDiaries() {
+        return diaryService.getDiaries(null, null, null);
+    }
+}
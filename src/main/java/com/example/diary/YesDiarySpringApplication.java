@@ -2,13 +2,32 @@ package com.example.diary;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 @SpringBootApplication
-@EnableJpaAuditing
+@ConfigurationPropertiesScan
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+@EnableScheduling
 public class YesDiarySpringApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(YesDiarySpringApplication.class, args);
     }
+
+    /**
+     * DB TIMESTAMP 정밀도(마이크로초)에 맞춰 감사 시각을 절삭한다.
+     * 메모리의 엔티티 값과 저장된 값이 달라 커서 비교가 어긋나는 것을 막는다.
+     */
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
 }
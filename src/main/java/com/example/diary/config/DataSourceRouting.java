@@ -0,0 +1,49 @@
+package com.example.diary.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드의 읽기 전용 트랜잭션을 복제본 대신 주 DB 로 보내도록 지정한다.
+ * 복제본 라우팅(diary.replicas.enabled)이 꺼져 있으면 아무 효과가 없다.
+ *
+ * 커넥션은 트랜잭션의 첫 쿼리 시점에 정해지므로, 트랜잭션 안에서 첫 쿼리 전에 지정해야 효과가 있다.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    /**
+     * action 을 실행하는 동안 읽기도 주 DB 에서 한다.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            } else {
+                PRIMARY.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 요청 단위로 주 DB 를 지정한다. 요청이 끝나면 clear 를 호출해야 한다.
+     */
+    public static void forcePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY.remove();
+    }
+}
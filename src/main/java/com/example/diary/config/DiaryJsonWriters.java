@@ -0,0 +1,93 @@
+package com.example.diary.config;
+
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySummaryResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * 미리 설정해 두고 재사용하는 ObjectWriter 모음. ObjectWriter 는 불변이므로 스레드 간에 공유한다.
+ *
+ * - export: 내보내기(NDJSON)용 DiaryResponse writer
+ * - standard / compact: ?compact, ?fields 요청용 writer. compact 는 null 필드를 생략하고
+ *   일시를 epoch 밀리초로 쓴다. fields 는 DiaryResponse, DiarySummaryResponse 의 필드만 거른다
+ *   (목록 응답의 content, nextCursor 등 감싸는 필드는 그대로 둔다).
+ */
+@Component
+public class DiaryJsonWriters {
+
+    static final String FIELDS_FILTER = "diaryFields";
+
+    private final ObjectWriter export;
+    private final ObjectWriter standard;
+    private final ObjectWriter compact;
+
+    public DiaryJsonWriters(ObjectMapper objectMapper) {
+        this.export = objectMapper.writerFor(DiaryResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        ObjectMapper standardMapper = withFieldFilter(objectMapper.copy());
+        ObjectMapper compactMapper = withFieldFilter(objectMapper.copy())
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .registerModule(new SimpleModule("diary-compact")
+                        .addSerializer(LocalDateTime.class, new EpochMillisSerializer()));
+
+        SimpleFilterProvider allFields = filterProvider(SimpleBeanPropertyFilter.serializeAll());
+        this.standard = standardMapper.writer(allFields);
+        this.compact = compactMapper.writer(allFields);
+    }
+
+    public ObjectWriter export() {
+        return export;
+    }
+
+    /**
+     * @param compact true 면 null 생략 + epoch 밀리초 일시
+     * @param fields 남길 필드 이름 (null 또는 비어 있으면 모두)
+     */
+    public ObjectWriter forRequest(boolean compact, Set<String> fields) {
+        ObjectWriter writer = compact ? this.compact : this.standard;
+        if (fields == null || fields.isEmpty()) {
+            return writer;
+        }
+        return writer.with(filterProvider(SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+    }
+
+    private static ObjectMapper withFieldFilter(ObjectMapper mapper) {
+        return mapper
+                .addMixIn(DiaryResponse.class, FieldFilterMixin.class)
+                .addMixIn(DiarySummaryResponse.class, FieldFilterMixin.class);
+    }
+
+    private static SimpleFilterProvider filterProvider(SimpleBeanPropertyFilter filter) {
+        return new SimpleFilterProvider().addFilter(FIELDS_FILTER, filter);
+    }
+
+    @JsonFilter(FIELDS_FILTER)
+    private interface FieldFilterMixin {
+    }
+
+    private static final class EpochMillisSerializer extends JsonSerializer<LocalDateTime> {
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
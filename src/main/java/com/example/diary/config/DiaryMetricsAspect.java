@@ -0,0 +1,108 @@
+package com.example.diary.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 서비스/리포지토리 호출 메트릭.
+ *
+ * - diary.service.invocations: DiaryService 메서드별 실행 시간 (method, exception 태그)
+ * - diary.repository.rows: DiaryRepository 메서드별 반환 행 수 (method 태그)
+ *
+ * 리포지토리 실행 시간은 스프링 부트가 기본으로 기록하는 spring.data.repository.invocations 를 쓴다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class DiaryMetricsAspect {
+
+    static final String SERVICE_TIMER = "diary.service.invocations";
+    static final String REPOSITORY_ROWS = "diary.repository.rows";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(com.example.diary.service.DiaryService)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("this(com.example.diary.repository.DiaryRepository)")
+    public Object countRepositoryRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (((MethodSignature) joinPoint.getSignature()).getReturnType() == void.class) {
+            return result;
+        }
+        DistributionSummary rows = DistributionSummary.builder(REPOSITORY_ROWS)
+                .tag("method", joinPoint.getSignature().getName())
+                .baseUnit("rows")
+                .register(meterRegistry);
+
+        if (result instanceof Stream) {
+            // 스트림은 소비가 끝나고 닫힐 때 센다
+            LongAdder count = new LongAdder();
+            return ((Stream<?>) result)
+                    .peek(row -> count.increment())
+                    .onClose(() -> rows.record(count.sum()));
+        }
+        long count = rowCount(result);
+        if (count >= 0) {
+            rows.record(count);
+        }
+        return result;
+    }
+
+    /**
+     * 조회 결과의 행 수. 개수/존재 여부처럼 행이 아닌 결과는 -1.
+     */
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable) {
+            long count = 0;
+            for (Object ignored : (Iterable<?>) result) {
+                count++;
+            }
+            return count;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+}
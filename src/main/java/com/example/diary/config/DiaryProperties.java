@@ -0,0 +1,359 @@
+package com.example.diary.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "diary")
+public class DiaryProperties {
+
+    private final Pagination pagination = new Pagination();
+    private final Summary summary = new Summary();
+    private final Cache cache = new Cache();
+    private final Search search = new Search();
+    private final Purge purge = new Purge();
+    private final WriteBehind writeBehind = new WriteBehind();
+    private final Execution execution = new Execution();
+    private final Export export = new Export();
+    private final RateLimit rateLimit = new RateLimit();
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private final Changes changes = new Changes();
+    private final Events events = new Events();
+    private final Replicas replicas = new Replicas();
+    private final Shards shards = new Shards();
+
+    /**
+     * 목록 조회 페이지 크기 설정
+     */
+    @Getter
+    @Setter
+    public static class Pagination {
+
+        /** size 파라미터가 없을 때 사용할 기본 페이지 크기 */
+        private int defaultSize = 20;
+
+        /** 요청과 무관하게 적용되는 최대 페이지 크기 */
+        private int maxSize = 100;
+
+        /**
+         * 요청된 페이지 크기에 기본값과 상한을 적용한다.
+         * @throws IllegalArgumentException 1 미만의 크기가 요청된 경우
+         */
+        public int resolveSize(Integer size) {
+            if (size == null) {
+                return defaultSize;
+            }
+            if (size < 1) {
+                throw new IllegalArgumentException("페이지 크기는 1 이상이어야 합니다: " + size);
+            }
+            return Math.min(size, maxSize);
+        }
+    }
+
+    /**
+     * 목록 요약(DiarySummaryResponse) 설정
+     */
+    @Getter
+    @Setter
+    public static class Summary {
+
+        /** 요청할 수 있는 최대 내용 미리보기 글자 수 (저장된 미리보기가 Diary.PREVIEW_LENGTH 글자이므로 그 이하로 둔다) */
+        private int maxPreviewLength = 200;
+
+        /**
+         * 요청된 미리보기 길이에 상한을 적용한다. 지정하지 않으면 미리보기를 포함하지 않는다.
+         * @throws IllegalArgumentException 음수 길이가 요청된 경우
+         */
+        public int resolvePreviewLength(Integer previewLength) {
+            if (previewLength == null) {
+                return 0;
+            }
+            if (previewLength < 0) {
+                throw new IllegalArgumentException("미리보기 길이는 0 이상이어야 합니다: " + previewLength);
+            }
+            return Math.min(previewLength, maxPreviewLength);
+        }
+    }
+
+    /**
+     * 단건 조회(DiaryResponse) 캐시 설정
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /** 캐시에 보관할 최대 일기 수 */
+        private long maximumSize = 10_000;
+
+        /** 저장 후 만료까지의 시간 */
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 전문 검색 색인 설정
+     */
+    @Getter
+    @Setter
+    public static class Search {
+
+        /** 애플리케이션 기동 시 DB 에서 색인을 다시 만들지 여부 */
+        private boolean rebuildOnStartup = true;
+    }
+
+    /**
+     * 삭제된(soft delete) 일기 영구 삭제 작업 설정
+     */
+    @Getter
+    @Setter
+    public static class Purge {
+
+        /** 예약 작업 실행 여부 */
+        private boolean enabled = true;
+
+        /** 삭제 후 영구 삭제까지 보관(복구 가능) 기간 */
+        private Duration retention = Duration.ofDays(7);
+
+        /** 한 트랜잭션에서 영구 삭제할 최대 행 수 */
+        private int batchSize = 500;
+
+        /** 실행 주기 (cron, 기본: 매일 04시) */
+        private String cron = "0 0 4 * * *";
+    }
+
+    /**
+     * 일기 생성 쓰기 지연(write-behind) 설정
+     */
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /** true 이면 POST /api/diaries 가 큐에 넣고 202 를 반환한다 */
+        private boolean enabled = false;
+
+        /** 저장을 기다릴 수 있는 최대 요청 수 (초과 시 429) */
+        private int queueCapacity = 10_000;
+
+        /** 한 트랜잭션으로 저장할 최대 요청 수 */
+        private int batchSize = 200;
+
+        /** 첫 요청 이후 배치를 채우기 위해 기다리는 최대 시간 */
+        private Duration maxDelay = Duration.ofMillis(20);
+
+        /** 처리 상태(ticket) 보관 기간 */
+        private Duration statusTimeToLive = Duration.ofMinutes(10);
+
+        /** 종료 시 남은 요청을 저장하기 위해 기다리는 최대 시간 */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * 요청 실행 방식 설정
+     */
+    @Getter
+    @Setter
+    public static class Execution {
+
+        /** true 이면 Tomcat 요청과 MVC 비동기 처리를 가상 스레드에서 실행한다 (Java 21 이상 필요) */
+        private boolean virtualThreads = false;
+    }
+
+    /**
+     * 전체 내보내기(GET /api/diaries/export) 설정
+     */
+    @Getter
+    @Setter
+    public static class Export {
+
+        /** 내보내기 응답의 비동기 처리 제한 시간. 다른 비동기 요청은 spring.mvc.async.request-timeout 을 따른다 */
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    /**
+     * 요청자별 요청 빈도 제한(토큰 버킷) 설정
+     */
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        /** false 이면 @RateLimited 를 무시한다 */
+        private boolean enabled = true;
+
+        /** 버킷을 유지할 최대 요청자 수. 넘으면 오래된 버킷부터 버린다 */
+        private long maxKeys = 100_000;
+
+        /** 이 시간 동안 요청이 없던 요청자의 버킷은 버린다 (다시 가득 찬 상태로 시작) */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        /** @RateLimited 이름별 버킷 설정 */
+        private Map<String, Bucket> endpoints = new LinkedHashMap<>();
+
+        @Getter
+        @Setter
+        public static class Bucket {
+
+            /** 한 번에 몰아서 보낼 수 있는 최대 요청 수 */
+            private int capacity = 20;
+
+            /** 초당 다시 채워지는 토큰 수 (지속 가능한 요청 빈도) */
+            private double refillPerSecond = 10;
+        }
+    }
+
+    /**
+     * 비싼 엔드포인트의 전역 동시 실행 제한 설정
+     */
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+
+        /** false 이면 @ConcurrencyLimited 를 무시한다 */
+        private boolean enabled = true;
+
+        /** 한도를 넘어 503 으로 거절할 때 Retry-After 로 알려줄 시간 */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /** @ConcurrencyLimited 이름별 최대 동시 실행 수 */
+        private Map<String, Integer> maxConcurrent = new LinkedHashMap<>();
+    }
+
+    /**
+     * 변경 피드 설정
+     */
+    @Getter
+    @Setter
+    public static class Changes {
+
+        /** limit 파라미터가 없을 때 한 번에 반환할 변경 수 */
+        private int defaultLimit = 100;
+
+        /** 한 번에 반환할 수 있는 최대 변경 수 */
+        private int maxLimit = 1000;
+
+        /** 롱 폴링으로 기다릴 수 있는 최대 시간 */
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        /** 동시에 기다릴 수 있는 롱 폴링 요청 수. 넘으면 기다리지 않고 빈 결과를 반환한다 */
+        private int maxWaiters = 10_000;
+
+        /** 변경 항목 보관 기간. 이보다 오래 동기화하지 않은 클라이언트는 전체를 다시 받아야 한다 */
+        private Duration retention = Duration.ofDays(30);
+
+        /**
+         * 요청된 변경 수에 기본값과 상한을 적용한다.
+         * @throws IllegalArgumentException 1 미만이 요청된 경우
+         */
+        public int resolveLimit(Integer limit) {
+            if (limit == null) {
+                return defaultLimit;
+            }
+            if (limit < 1) {
+                throw new IllegalArgumentException("limit 은 1 이상이어야 합니다: " + limit);
+            }
+            return Math.min(limit, maxLimit);
+        }
+    }
+
+    /**
+     * 작성자별 실시간 변경 구독(SSE) 설정
+     */
+    @Getter
+    @Setter
+    public static class Events {
+
+        /** 구독자별로 보내지 못하고 쌓아 둘 수 있는 이벤트 수. 넘으면 느린 구독자로 보고 연결을 끊는다 */
+        private int bufferSize = 64;
+
+        /** 보낼 이벤트가 없을 때 연결 확인용 주석을 보내는 간격 */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /** 구독 연결의 최대 유지 시간. 지나면 끊기며 클라이언트(EventSource)가 Last-Event-ID 로 다시 연결한다 */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /** 노드당 최대 구독자 수 */
+        private int maxSubscribers = 20_000;
+
+        /** 구독자에게 이벤트를 쓰는 공용 스레드 수 (구독자 수와 무관) */
+        private int senderThreads = 4;
+    }
+
+    /**
+     * 읽기 복제본 라우팅 설정
+     */
+    @Getter
+    @Setter
+    public static class Replicas {
+
+        /** true 이면 읽기 전용 트랜잭션을 복제본으로 보낸다 (주 DB 는 spring.datasource) */
+        private boolean enabled = false;
+
+        /** 복제본 선택 방식 (round-robin, least-loaded) */
+        private ReadReplicaRoutingDataSource.Strategy loadBalancing = ReadReplicaRoutingDataSource.Strategy.ROUND_ROBIN;
+
+        /** 복제본 커넥션 유효성 검사 간격 */
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        /** 클라이언트가 쓰기를 한 뒤 이 시간 동안은 그 클라이언트의 읽기를 주 DB 에서 한다 */
+        private Duration readYourWritesWindow = Duration.ofSeconds(3);
+
+        /** 쓰기 기록을 유지할 최대 클라이언트 수 */
+        private long maxTrackedClients = 100_000;
+
+        private List<Node> nodes = new ArrayList<>();
+
+        @Getter
+        @Setter
+        public static class Node {
+
+            private String url;
+            private String username;
+            private String password;
+
+            /** 고정 크기 풀 크기 */
+            private int poolSize = 10;
+
+            /** 커넥션을 얻지 못하면 이 시간 후 주 DB 로 넘어간다 */
+            private Duration connectionTimeout = Duration.ofSeconds(1);
+        }
+    }
+
+    /**
+     * 작성자 기반 샤딩 설정
+     */
+    @Getter
+    @Setter
+    public static class Shards {
+
+        /** true 이면 작성자 해시로 일기를 여러 DB 에 나눠 저장한다 (0 번 샤드는 spring.datasource) */
+        private boolean enabled = false;
+
+        /** 1 번부터의 샤드. 샤드 수를 바꾸면 작성자의 샤드가 달라지므로 기존 데이터를 재배치해야 한다 */
+        private List<Node> nodes = new ArrayList<>();
+
+        /**
+         * 샤드 수. 샤딩이 꺼져 있으면 1.
+         */
+        public int count() {
+            return enabled ? nodes.size() + 1 : 1;
+        }
+
+        @Getter
+        @Setter
+        public static class Node {
+
+            private String url;
+            private String username;
+            private String password;
+
+            /** 고정 크기 풀 크기 */
+            private int poolSize = 10;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.diary.config;
+
+import com.example.diary.dto.DiaryCreateRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 샤딩이 켜져 있으면 @ShardKey 파라미터가 있는 서비스 메서드를 그 키의 샤드에서 실행한다.
+ *
+ * 트랜잭션 어드바이스보다 바깥에서 실행되므로(HIGHEST_PRECEDENCE) 트랜잭션의 커넥션도 그 샤드에서 얻는다.
+ * @ShardKey 가 없는 메서드(전체 목록, 일괄 처리 등)는 DiaryShardTemplate 으로 샤드를 직접 나눈다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DiaryShardRoutingAspect {
+
+    private static final int NO_SHARD_KEY = -1;
+
+    private final DiaryProperties diaryProperties;
+    private final ConcurrentMap<Method, Integer> shardKeyIndexes = new ConcurrentHashMap<>();
+
+    @Around("within(com.example.diary.service.DiaryService) || within(com.example.diary.service.DiaryCalendarService)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        DiaryProperties.Shards shards = diaryProperties.getShards();
+        if (!shards.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        int index = shardKeyIndexes.computeIfAbsent(method, DiaryShardRoutingAspect::shardKeyIndex);
+        if (index == NO_SHARD_KEY) {
+            return joinPoint.proceed();
+        }
+
+        Object key = joinPoint.getArgs()[index];
+        if (key instanceof DiaryCreateRequest) {
+            key = ((DiaryCreateRequest) key).getAuthor();
+        }
+        Integer previous = DiaryShards.enter(DiaryShards.shardOfKey(key, shards.count()));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DiaryShards.restore(previous);
+        }
+    }
+
+    private static int shardKeyIndex(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return i;
+                }
+            }
+        }
+        return NO_SHARD_KEY;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.diary.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 작성자 기반 샤딩의 샤드 계산과 현재 스레드의 샤드 지정.
+ *
+ * 샤드는 작성자 해시로 정하고, 일기 ID 의 하위 SHARD_BITS 비트에 샤드 번호를 담으므로
+ * ID 만으로 조회 없이 샤드를 찾을 수 있다. 해시 함수와 ID 형식은 저장된 데이터의 위치를 정하므로 바꾸면 안 된다.
+ *
+ * 샤드 지정은 샤딩(diary.shards.enabled)이 켜져 있을 때만 한다. 지정되지 않은 스레드의 쿼리는 0 번 샤드로 가고,
+ * DiaryIdGenerator 는 샤드가 지정된 경우에만 ID 에 샤드 번호를 넣는다.
+ */
+public final class DiaryShards {
+
+    /** 일기 ID 에서 샤드 번호가 차지하는 하위 비트 수 */
+    public static final int SHARD_BITS = 10;
+
+    /** 최대 샤드 수 */
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private DiaryShards() {
+    }
+
+    /**
+     * 작성자의 샤드. String.hashCode 는 명세로 고정되어 있어 JVM 과 무관하게 같은 값을 준다.
+     */
+    public static int shardOf(String author, int count) {
+        int hash = author.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, count);
+    }
+
+    /**
+     * ID 에 담긴 샤드.
+     * @throws RuntimeException 샤드 번호가 설정된 샤드 수를 넘어 존재할 수 없는 ID 인 경우
+     */
+    public static int shardOfId(long id, int count) {
+        int shard = (int) (id & SHARD_MASK);
+        if (shard >= count) {
+            throw new RuntimeException("일기를 찾을 수 없습니다. ID: " + id);
+        }
+        return shard;
+    }
+
+    /**
+     * 샤드 키(작성자 String 또는 일기 ID Number)의 샤드.
+     * @throws IllegalArgumentException 키가 없거나 지원하지 않는 타입인 경우
+     */
+    public static int shardOfKey(Object key, int count) {
+        if (key instanceof String) {
+            return shardOf((String) key, count);
+        }
+        if (key instanceof Number) {
+            return shardOfId(((Number) key).longValue(), count);
+        }
+        throw new IllegalArgumentException("샤드 키는 작성자 또는 일기 ID 여야 합니다: " + key);
+    }
+
+    /**
+     * 시퀀스 값과 샤드 번호로 일기 ID 를 만든다.
+     */
+    public static long encodeId(long sequenceValue, int shard) {
+        return (sequenceValue << SHARD_BITS) | shard;
+    }
+
+    /**
+     * 현재 스레드에 지정된 샤드. 지정되지 않았으면 null.
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * action 을 실행하는 동안 쿼리와 ID 생성을 지정한 샤드로 보낸다.
+     * 커넥션은 트랜잭션의 첫 쿼리 시점에 정해지므로 트랜잭션을 시작하기 전에 지정해야 한다.
+     */
+    public static <T> T on(int shard, Supplier<T> action) {
+        Integer previous = enter(shard);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 샤드를 지정하고 이전 값을 반환한다. 끝나면 반드시 restore 에 이전 값을 넘겨야 한다.
+     */
+    public static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
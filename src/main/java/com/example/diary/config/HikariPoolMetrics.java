@@ -0,0 +1,34 @@
+package com.example.diary.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * 빈으로 등록되지 않은 HikariCP 풀(복제본, 추가 샤드)의 hikaricp.connections.* 메트릭 바인딩.
+ *
+ * 스프링 부트는 DataSource 빈인 풀만 메트릭에 연결하므로, 라우팅 DataSource 안의 풀은 MeterBinder 로 따로 연결한다.
+ * DataSource 빈이 MeterRegistry 를 직접 주입받으면 MeterRegistry → MeterBinder(DiaryChangeFeed 등) → JPA →
+ * DataSource 순환이 생기므로, 레지스트리가 준비된 뒤 바인딩 시점에 연결한다. 이미 시작된 풀에도 설정할 수 있다.
+ */
+final class HikariPoolMetrics {
+
+    private HikariPoolMetrics() {
+    }
+
+    static MeterBinder binder(Supplier<? extends Iterable<DataSource>> pools) {
+        return registry -> {
+            for (DataSource pool : pools.get()) {
+                if (pool instanceof HikariDataSource) {
+                    HikariDataSource hikari = (HikariDataSource) pool;
+                    if (hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+                        hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.diary.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 정상인 복제본 중 하나로, 나머지는 주 DB 로 커넥션을 내준다.
+ *
+ * 트랜잭션 시작 시점에는 읽기 전용 여부가 아직 정해지지 않으므로 LazyConnectionDataSourceProxy 뒤에 두어
+ * 첫 쿼리 시점에 고르게 한다. 복제본은 주기적으로 커넥션 유효성을 검사하며, 검사나 커넥션 획득에 실패한
+ * 복제본은 다음 검사에서 회복될 때까지 제외한다. 쓸 수 있는 복제본이 없으면 주 DB 를 쓴다.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public enum Strategy {
+        /** 정상 복제본을 차례로 사용 */
+        ROUND_ROBIN,
+        /** 사용 중 커넥션이 가장 적은 복제본 사용 (Hikari 풀만 지원, 그 외는 0 으로 본다) */
+        LEAST_LOADED
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                        Strategy strategy, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.strategy = strategy;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "diary-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        for (Replica replica : candidates()) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                log.debug("읽기 전용 트랜잭션을 복제본 {} 으로 보냅니다", replica.name);
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        log.debug("쓸 수 있는 복제본이 없어 주 DB 에서 읽습니다");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("사용자별 커넥션은 지원하지 않습니다");
+    }
+
+    /**
+     * 모든 복제본의 커넥션 유효성을 검사해 상태를 갱신한다.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    /**
+     * @return 현재 읽기에 쓸 수 있는 복제본 이름
+     */
+    public List<String> getHealthyReplicas() {
+        List<String> names = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                names.add(replica.name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return 복제본 DataSource (메트릭 연결용)
+     */
+    public List<DataSource> getReplicaDataSources() {
+        List<DataSource> dataSources = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            dataSources.add(replica.dataSource);
+        }
+        return dataSources;
+    }
+
+    @Override
+    public void close() throws IOException {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static boolean routeToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !DataSourceRouting.isPrimaryForced();
+    }
+
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.size() > 1) {
+            if (strategy == Strategy.LEAST_LOADED) {
+                healthy.sort(Comparator.comparingInt(Replica::activeConnections));
+            } else {
+                Collections.rotate(healthy, -Math.floorMod(next.getAndIncrement(), healthy.size()));
+            }
+        }
+        return healthy;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        int activeConnections() {
+            if (dataSource instanceof HikariDataSource) {
+                HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            return 0;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                log.info("복제본 {} 이(가) 회복되어 읽기에 다시 사용합니다", name);
+            }
+            healthy = true;
+        }
+
+        void markDown(Exception cause) {
+            if (healthy) {
+                log.warn("복제본 {} 을(를) 읽기에서 제외합니다: {}", name,
+                        cause == null ? "유효성 검사 실패" : cause.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.diary.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * diary.replicas.enabled=true 일 때 읽기 전용 트랜잭션을 복제본으로 보내는 DataSource 를 구성한다.
+ *
+ * 주 DB 풀은 spring.datasource(.hikari) 설정 그대로 만들고, 애플리케이션(JPA, Flyway)에는
+ * LazyConnectionDataSourceProxy 로 감싼 라우팅 DataSource 를 노출한다. Flyway 와 쓰기는 항상 주 DB 로 간다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "diary.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     DiaryProperties diaryProperties) {
+        DiaryProperties.Replicas config = diaryProperties.getReplicas();
+        List<DiaryProperties.Replicas.Node> nodes = config.getNodes();
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("diary.replicas.nodes 에 복제본을 하나 이상 설정해야 합니다");
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            String name = "diary-replica-" + (i + 1);
+            replicas.put(name, replicaPool(name, nodes.get(i), primaryDataSource));
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas,
+                config.getLoadBalancing(), config.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return HikariPoolMetrics.binder(readReplicaRoutingDataSource::getReplicaDataSources);
+    }
+
+    private static HikariDataSource replicaPool(String name, DiaryProperties.Replicas.Node node,
+                                                HikariDataSource primary) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(node.getUrl());
+        pool.setUsername(node.getUsername() != null ? node.getUsername() : primary.getUsername());
+        pool.setPassword(node.getPassword() != null ? node.getPassword() : primary.getPassword());
+        pool.setDriverClassName(primary.getDriverClassName());
+        pool.setMaximumPoolSize(node.getPoolSize());
+        pool.setMinimumIdle(node.getPoolSize());
+        pool.setConnectionTimeout(node.getConnectionTimeout().toMillis());
+        pool.setAutoCommit(primary.isAutoCommit());
+        pool.setReadOnly(true);
+        // 복제본이 내려가 있어도 애플리케이션은 뜨고, 상태 검사에서 제외된다
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+}
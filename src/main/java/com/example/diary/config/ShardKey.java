@@ -0,0 +1,17 @@
+package com.example.diary.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 샤드를 정하는 파라미터 (작성자, 일기 ID 또는 DiaryCreateRequest).
+ * 샤딩이 켜져 있으면 DiaryShardRoutingAspect 가 메서드(와 그 트랜잭션)를 이 값의 샤드에서 실행한다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+}
@@ -0,0 +1,66 @@
+package com.example.diary.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 현재 스레드에 지정된 샤드(DiaryShards)의 DataSource 로 커넥션을 내준다.
+ * 샤드가 지정되지 않았으면 0 번 샤드(주 DB)를 쓴다. JPA 스키마 검증(validate)과 헬스 체크가 여기에 해당한다.
+ *
+ * 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻도록 LazyConnectionDataSourceProxy 뒤에 둔다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<DataSource> additionalShards;
+
+    /**
+     * @param primary 0 번 샤드 (빈으로 등록된 풀이므로 여기서 닫지 않는다)
+     * @param additionalShards 1 번부터의 샤드
+     */
+    public ShardRoutingDataSource(DataSource primary, List<DataSource> additionalShards) {
+        this.additionalShards = Collections.unmodifiableList(new ArrayList<>(additionalShards));
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(0, primary);
+        for (int i = 0; i < additionalShards.size(); i++) {
+            targets.put(i + 1, additionalShards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // 샤드 번호가 지정되었는데 그 샤드가 없으면 0 번으로 보내지 않고 실패한다.
+        // 샤드가 지정되지 않은 경우(lookup key null)는 이 설정과 무관하게 0 번(기본 대상)으로 간다.
+        setLenientFallback(false);
+    }
+
+    public int getShardCount() {
+        return additionalShards.size() + 1;
+    }
+
+    /**
+     * @return 1 번부터의 샤드 DataSource
+     */
+    public List<DataSource> getAdditionalShards() {
+        return additionalShards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DiaryShards.current();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : additionalShards) {
+            if (shard instanceof Closeable) {
+                ((Closeable) shard).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.diary.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * diary.shards.enabled=true 일 때 작성자 해시로 샤드를 고르는 DataSource 를 구성한다.
+ *
+ * 0 번 샤드 풀은 spring.datasource(.hikari) 설정 그대로 만들고, 애플리케이션(JPA, Flyway)에는
+ * LazyConnectionDataSourceProxy 로 감싼 라우팅 DataSource 를 노출한다. Flyway 마이그레이션은 샤드마다 실행한다.
+ *
+ * 읽기 복제본 라우팅(diary.replicas)과는 함께 쓸 수 없다. 샤드별 복제본이 필요하면 각 샤드 DB 앞단에서 처리한다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "diary.shards", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource,
+                                                         DiaryProperties diaryProperties) {
+        if (diaryProperties.getReplicas().isEnabled()) {
+            throw new IllegalStateException("diary.shards 와 diary.replicas 는 함께 쓸 수 없습니다");
+        }
+        List<DiaryProperties.Shards.Node> nodes = diaryProperties.getShards().getNodes();
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("diary.shards.nodes 에 샤드를 하나 이상 설정해야 합니다");
+        }
+        if (nodes.size() + 1 > DiaryShards.MAX_SHARDS) {
+            throw new IllegalStateException("샤드는 최대 " + DiaryShards.MAX_SHARDS + "개까지 설정할 수 있습니다");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            shards.add(shardPool("diary-shard-" + (i + 1), nodes.get(i), primaryDataSource));
+        }
+        return new ShardRoutingDataSource(primaryDataSource, shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public MeterBinder shardPoolMetrics(ShardRoutingDataSource shardRoutingDataSource) {
+        return HikariPoolMetrics.binder(shardRoutingDataSource::getAdditionalShards);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+                DiaryShards.on(shard, flyway::migrate);
+            }
+        };
+    }
+
+    private static HikariDataSource shardPool(String name, DiaryProperties.Shards.Node node,
+                                              HikariDataSource primary) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(node.getUrl());
+        pool.setUsername(node.getUsername() != null ? node.getUsername() : primary.getUsername());
+        pool.setPassword(node.getPassword() != null ? node.getPassword() : primary.getPassword());
+        pool.setDriverClassName(primary.getDriverClassName());
+        pool.setMaximumPoolSize(node.getPoolSize());
+        pool.setMinimumIdle(node.getPoolSize());
+        pool.setAutoCommit(primary.isAutoCommit());
+        return pool;
+    }
+}
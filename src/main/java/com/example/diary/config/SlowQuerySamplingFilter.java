@@ -0,0 +1,31 @@
+package com.example.diary.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 느린 쿼리 로그(org.hibernate.SQL_SLOW)를 sampleRate 비율만큼만 남기는 logback 필터.
+ *
+ * 임계값(LOG_QUERIES_SLOWER_THAN_MS)을 넘는 쿼리가 부하 상황에서 한꺼번에 몰려도 로그 양이 비율만큼으로 제한된다.
+ * 다른 로거의 이벤트는 판단하지 않는다(NEUTRAL).
+ */
+@Setter
+public class SlowQuerySamplingFilter extends Filter<ILoggingEvent> {
+
+    static final String SLOW_QUERY_LOGGER = "org.hibernate.SQL_SLOW";
+
+    /** 남길 비율 (0 이면 모두 버리고 1 이면 모두 남긴다) */
+    private double sampleRate = 1.0;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!SLOW_QUERY_LOGGER.equals(event.getLoggerName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < sampleRate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.diary.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 요청 처리를 가상 스레드에서 실행하는 모드 (diary.execution.virtual-threads: true).
+ *
+ * Tomcat 요청 스레드 풀과 MVC 비동기 처리(StreamingResponseBody 등)를 요청마다 가상 스레드를 만드는
+ * 실행기로 바꾼다. JDBC 대기 중인 요청이 플랫폼 스레드를 붙잡지 않으므로 동시 요청 수는 Tomcat 스레드 수가 아니라
+ * 커넥션 풀 크기에 의해 제한된다.
+ *
+ * 소스는 Java 8 기준으로 컴파일되므로 가상 스레드 API 는 리플렉션으로 호출하며, Java 21 미만에서 켜면 기동에 실패한다.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "diary.execution", name = "virtual-threads", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        log.info("요청을 가상 스레드에서 처리합니다");
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+    }
+
+    @Override
+    public void destroy() {
+        virtualThreadExecutor.shutdown();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("가상 스레드는 Java 21 이상에서만 사용할 수 있습니다. 현재: "
+                    + System.getProperty("java.version"), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("가상 스레드 실행기를 만들 수 없습니다", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.diary.config;
+
+import com.example.diary.controller.AdmissionControlInterceptor;
+import com.example.diary.controller.AsyncTimeoutInterceptor;
+import com.example.diary.controller.ReadYourWritesInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+    private final AsyncTimeoutInterceptor asyncTimeoutInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/api/diaries/**");
+        // 복제본 라우팅(diary.replicas.enabled)을 켠 경우에만 등록된다
+        readYourWritesInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(asyncTimeoutInterceptor);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.diary.controller;
+
+import com.example.diary.dto.CacheStatsResponse;
+import com.example.diary.service.DiaryCache;
+import com.example.diary.service.DiaryCalendarService;
+import com.example.diary.service.DiaryPurgeJob;
+import com.example.diary.service.DiarySearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final DiaryCache diaryCache;
+    private final DiarySearchService diarySearchService;
+    private final DiaryPurgeJob diaryPurgeJob;
+    private final DiaryCalendarService diaryCalendarService;
+
+    @GetMapping("/cache/diaries")
+    public ResponseEntity<CacheStatsResponse> getDiaryCacheStats() {
+        return ResponseEntity.ok(CacheStatsResponse.of(diaryCache.stats(), diaryCache.size()));
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Integer> rebuildSearchIndex() {
+        return ResponseEntity.ok(diarySearchService.rebuild());
+    }
+
+    @PostMapping("/calendar/rebuild")
+    public ResponseEntity<Integer> rebuildCalendar() {
+        return ResponseEntity.ok(diaryCalendarService.rebuild());
+    }
+
+    @PostMapping("/diaries/purge")
+    public ResponseEntity<Integer> purgeDeletedDiaries() {
+        return ResponseEntity.ok(diaryPurgeJob.purge());
+    }
+}
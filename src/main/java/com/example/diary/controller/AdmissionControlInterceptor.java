@@ -0,0 +1,139 @@
+package com.example.diary.controller;
+
+import com.example.diary.config.DiaryProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @RateLimited / @ConcurrencyLimited 가 붙은 핸들러의 요청 수락 여부를 결정한다.
+ *
+ * 요청자별 토큰 버킷은 Caffeine 캐시에 두어 오래 쓰이지 않은 키는 자동으로 사라진다.
+ * 동시 실행 허가(Semaphore)는 요청이 끝날 때(비동기 응답이면 비동기 처리가 끝난 뒤) 반환한다.
+ */
+@Component
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+    private static final String AUTHOR_VARIABLE = "author";
+
+    private final DiaryProperties.RateLimit rateLimit;
+    private final DiaryProperties.ConcurrencyLimit concurrencyLimit;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+    private final ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(DiaryProperties diaryProperties, MeterRegistry meterRegistry) {
+        this.rateLimit = diaryProperties.getRateLimit();
+        this.concurrencyLimit = diaryProperties.getConcurrencyLimit();
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimit.getMaxKeys())
+                .expireAfterAccess(rateLimit.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 처리 후 재디스패치에서는 다시 검사하지 않는다
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited != null && !tryAcquireToken(rateLimited.value(), request, response)) {
+            return false;
+        }
+        ConcurrencyLimited concurrencyLimited = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        return concurrencyLimited == null || tryAcquirePermit(concurrencyLimited.value(), request, response);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Semaphore permit = (Semaphore) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release();
+        }
+    }
+
+    private boolean tryAcquireToken(String name, HttpServletRequest request, HttpServletResponse response) {
+        DiaryProperties.RateLimit.Bucket config = rateLimit.getEndpoints().get(name);
+        if (!rateLimit.isEnabled() || config == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(name + "|" + clientKey(request),
+                key -> new TokenBucket(config.getCapacity(), config.getRefillPerSecond(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            return true;
+        }
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos), name, "rate");
+        return false;
+    }
+
+    private boolean tryAcquirePermit(String name, HttpServletRequest request, HttpServletResponse response) {
+        Integer maxConcurrent = concurrencyLimit.getMaxConcurrent().get(name);
+        if (!concurrencyLimit.isEnabled() || maxConcurrent == null) {
+            return true;
+        }
+        Semaphore permit = permits.computeIfAbsent(name, key -> new Semaphore(maxConcurrent));
+        if (!permit.tryAcquire()) {
+            long retryAfterSeconds = retryAfterSeconds(concurrencyLimit.getRetryAfter().toNanos());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds, name, "concurrency");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                        String name, String reason) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        meterRegistry.counter("diary.admission.rejected", "endpoint", name, "reason", reason).increment();
+    }
+
+    /**
+     * Retry-After 는 초 단위이므로 올림하고, 0 초(바로 재시도)가 되지 않게 최소 1 초로 한다.
+     */
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    /**
+     * 인증된 사용자 → 원격 주소 순으로 요청자를 식별한다. 클라이언트가 마음대로 바꿀 수 있는 X-Client-Id 는
+     * 쓰지 않는다(헤더만 바꿔 새 버킷을 받을 수 있으므로). 경로에 작성자가 있으면 요청자의 버킷을 작성자별로
+     * 한 번 더 나눠, 다른 요청자가 그 작성자의 한도를 소진할 수 없게 한다.
+     */
+    @SuppressWarnings("unchecked")
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        String client = principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables != null && variables.containsKey(AUTHOR_VARIABLE)) {
+            return client + "|author:" + variables.get(AUTHOR_VARIABLE);
+        }
+        return client;
+    }
+}
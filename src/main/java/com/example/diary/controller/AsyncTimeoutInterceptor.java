@@ -0,0 +1,38 @@
+package com.example.diary.controller;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * 핸들러가 지정한 비동기 제한 시간을 Callable(StreamingResponseBody 포함) 처리에 적용한다.
+ *
+ * StreamingResponseBody 는 제한 시간을 따로 받지 않으므로, 핸들러가 withTimeout 으로 요청에 남긴 값을
+ * 비동기 처리가 시작되기 직전에 설정한다. 지정하지 않은 요청은 spring.mvc.async.request-timeout 을 그대로 쓴다.
+ */
+@Component
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+    /**
+     * 이 요청의 비동기 처리 제한 시간을 지정한다. 비동기 처리를 시작하기 전(핸들러 안)에 호출해야 한다.
+     */
+    public static void withTimeout(HttpServletRequest request, Duration timeout) {
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeout);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Duration && request instanceof AsyncWebRequest) {
+            ((AsyncWebRequest) request).setTimeout(((Duration) timeout).toMillis());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.diary.controller;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 요청을 보낸 클라이언트 식별. X-Client-Id 헤더가 있으면 그 값을, 없으면 원격 주소를 쓴다.
+ */
+final class ClientIds {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private ClientIds() {
+    }
+
+    static String of(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isEmpty()) {
+            return "client:" + clientId;
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.diary.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 이름의 엔드포인트들이 동시에 처리하는 요청 수를 제한한다 (요청자와 무관한 전역 한도).
+ * 한도를 넘으면 기다리지 않고 503 과 Retry-After 를 반환한다.
+ *
+ * value 는 diary.concurrency-limit.max-concurrent 의 설정 이름이며, 설정이 없으면 제한하지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimited {
+
+    String value();
+}
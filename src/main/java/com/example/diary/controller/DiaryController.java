@@ -1,53 +1,258 @@
 package com.example.diary.controller;
 
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.CursorPageResponse;
+import com.example.diary.dto.DiaryCalendarResponse;
+import com.example.diary.dto.DiaryChangesResponse;
+import com.example.diary.dto.DiaryBatchCreateRequest;
+import com.example.diary.dto.DiaryBatchDeleteRequest;
+import com.example.diary.dto.DiaryBatchUpdateRequest;
 import com.example.diary.dto.DiaryCreateRequest;
 import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySearchResponse;
+import com.example.diary.dto.DiarySummaryResponse;
 import com.example.diary.dto.DiaryUpdateRequest;
+import com.example.diary.dto.DiaryVersion;
+import com.example.diary.dto.DiaryWriteStatusResponse;
+import com.example.diary.exception.DiaryChangeFeedExpiredException;
+import com.example.diary.exception.DiaryConflictException;
+import com.example.diary.exception.DiaryPreconditionFailedException;
+import com.example.diary.exception.DiaryQueueFullException;
+import com.example.diary.exception.DiarySubscriptionLimitException;
+import com.example.diary.service.DiaryCalendarService;
+import com.example.diary.service.DiaryChangeFeed;
+import com.example.diary.service.DiaryEventBroadcaster;
+import com.example.diary.service.DiarySearchService;
 import com.example.diary.service.DiaryService;
+import com.example.diary.service.DiaryWriteBehindQueue;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/diaries")
 @RequiredArgsConstructor
 public class DiaryController {
 
+    private static final Duration LONG_POLL_TIMEOUT_MARGIN = Duration.ofSeconds(10);
+
     private final DiaryService diaryService;
+    private final DiarySearchService diarySearchService;
+    private final DiaryWriteBehindQueue diaryWriteBehindQueue;
+    private final DiaryCalendarService diaryCalendarService;
+    private final DiaryChangeFeed diaryChangeFeed;
+    private final DiaryEventBroadcaster diaryEventBroadcaster;
+    private final DiaryProperties diaryProperties;
 
+    /**
+     * 쓰기 지연 모드에서는 큐에 넣고 202 와 처리 상태 URL(Location)을 반환한다.
+     */
+    @RateLimited("create")
     @PostMapping
-    public ResponseEntity<DiaryResponse> createDiary(@Valid @RequestBody DiaryCreateRequest request) {
+    public ResponseEntity<?> createDiary(@Valid @RequestBody DiaryCreateRequest request) {
+        if (diaryWriteBehindQueue.isEnabled()) {
+            try {
+                DiaryWriteStatusResponse status = diaryWriteBehindQueue.submit(request);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/diaries/pending/" + status.getTicket()))
+                        .body(status);
+            } catch (DiaryQueueFullException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+        }
         DiaryResponse response = diaryService.createDiary(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/pending/{ticket}")
+    public ResponseEntity<DiaryWriteStatusResponse> getWriteStatus(@PathVariable String ticket) {
+        DiaryWriteStatusResponse status = diaryWriteBehindQueue.getStatus(ticket);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @RateLimited("create")
+    @ConcurrencyLimited("batch")
+    @PostMapping("/batch")
+    public ResponseEntity<List<DiaryResponse>> createDiaries(@Valid @RequestBody DiaryBatchCreateRequest request) {
+        List<DiaryResponse> responses = diaryService.createDiaries(request.getDiaries());
+        return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+    }
+
+    @ConcurrencyLimited("batch")
+    @PutMapping("/batch")
+    public ResponseEntity<List<DiaryResponse>> updateDiaries(@Valid @RequestBody DiaryBatchUpdateRequest request) {
+        try {
+            List<DiaryResponse> responses = diaryService.updateDiaries(request.getDiaries());
+            return ResponseEntity.ok(responses);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @ConcurrencyLimited("batch")
+    @PostMapping("/batch/delete")
+    public ResponseEntity<Void> deleteDiaries(@Valid @RequestBody DiaryBatchDeleteRequest request) {
+        diaryService.deleteDiaries(request.getIds());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<DiaryResponse> getDiary(@PathVariable Long id) {
+    public ResponseEntity<DiaryResponse> getDiary(@PathVariable Long id, WebRequest webRequest) {
         try {
+            // 버전만 가볍게 읽어 304 를 판단하고, 200 응답의 검증자는 본문과 같은 읽기에서 만든다
+            // (두 읽기 사이에 수정이 커밋되거나 복제본이 뒤처져도 ETag 와 본문의 버전이 어긋나지 않게)
+            DiaryVersion version = diaryService.getVersion(id);
+            if (webRequest.checkNotModified(DiaryEtags.of(version.getVersion()),
+                    DiaryEtags.lastModified(version.getUpdatedAt()))) {
+                return null;
+            }
             DiaryResponse response = diaryService.getDiary(id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .eTag(DiaryEtags.of(response.getVersion()))
+                    .lastModified(DiaryEtags.lastModified(response.getUpdatedAt()))
+                    .body(response);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @RateLimited("list")
+    @ConcurrencyLimited("list")
     @GetMapping
-    public ResponseEntity<List<DiaryResponse>> getAllDiaries() {
-        List<DiaryResponse> responses = diaryService.getAllDiaries();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<CursorPageResponse<DiarySummaryResponse>> getDiaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer preview,
+            WebRequest webRequest) {
+        try {
+            CursorPageResponse<DiarySummaryResponse> response = diaryService.getDiaries(cursor, size, preview);
+            if (webRequest.checkNotModified(DiaryEtags.of(response))) {
+                return null;
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @RateLimited("search")
+    @ConcurrencyLimited("search")
+    @GetMapping("/search")
+    public ResponseEntity<DiarySearchResponse> searchDiaries(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            DiarySearchResponse response = diarySearchService.search(q, page, size);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * since 이후의 변경(삭제 포함)을 반환한다. wait(초)가 주어지면 변경이 생길 때까지 요청 스레드 없이 기다린다.
+     * since 가 보관 기간보다 오래되었으면 410 을 반환하며, 이때는 전체 목록을 다시 받아야 한다.
+     */
+    @RateLimited("list")
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<DiaryChangesResponse>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer wait) {
+        // 최대 대기 시간이 지나면 빈 결과로 끝나므로, 비동기 제한 시간은 그보다 조금 길게 둔다
+        Duration timeout = diaryProperties.getChanges().getMaxWait().plus(LONG_POLL_TIMEOUT_MARGIN);
+        DeferredResult<ResponseEntity<DiaryChangesResponse>> result = new DeferredResult<>(timeout.toMillis());
+        CompletableFuture<DiaryChangesResponse> changes;
+        try {
+            changes = diaryChangeFeed.poll(since, limit, author, wait);
+        } catch (IllegalArgumentException e) {
+            result.setResult(ResponseEntity.badRequest().build());
+            return result;
+        }
+        // 클라이언트가 먼저 끊거나 비동기 요청이 만료되면 대기를 취소한다
+        result.onCompletion(() -> changes.cancel(false));
+        changes.whenComplete((response, error) -> {
+            if (error == null) {
+                result.setResult(ResponseEntity.ok(response));
+            } else if (error instanceof DiaryChangeFeedExpiredException) {
+                result.setResult(ResponseEntity.status(HttpStatus.GONE).build());
+            } else {
+                result.setErrorResult(error);
+            }
+        });
+        return result;
+    }
+
+    @ConcurrencyLimited("export")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDiaries(HttpServletRequest request) {
+        // 대용량이어도 끊기지 않도록 이 응답에만 긴 제한 시간을 둔다
+        AsyncTimeoutInterceptor.withTimeout(request, diaryProperties.getExport().getTimeout());
+        StreamingResponseBody body = diaryService::exportDiaries;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<DiaryResponse> updateDiary(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody DiaryUpdateRequest request) {
         try {
-            DiaryResponse response = diaryService.updateDiary(id, request);
-            return ResponseEntity.ok(response);
+            DiaryResponse response = diaryService.updateDiary(id, request, DiaryEtags.parseVersion(id, ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(DiaryEtags.of(response.getVersion()))
+                    .body(response);
+        } catch (DiaryPreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DiaryConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<DiarySummaryResponse> patchDiary(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody DiaryUpdateRequest request) {
+        try {
+            DiarySummaryResponse response = diaryService.patchDiary(id, request, DiaryEtags.parseVersion(id, ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(DiaryEtags.of(response.getVersion()))
+                    .body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (DiaryPreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -63,9 +268,71 @@ public class DiaryController {
         }
     }
 
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<DiaryResponse> restoreDiary(@PathVariable Long id) {
+        try {
+            DiaryResponse response = diaryService.restoreDiary(id);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @RateLimited("list")
     @GetMapping("/author/{author}")
-    public ResponseEntity<List<DiaryResponse>> getDiariesByAuthor(@PathVariable String author) {
-        List<DiaryResponse> responses = diaryService.getDiariesByAuthor(author);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<CursorPageResponse<DiarySummaryResponse>> getDiariesByAuthor(
+            @PathVariable String author,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer preview,
+            WebRequest webRequest) {
+        try {
+            CursorPageResponse<DiarySummaryResponse> response =
+                    diaryService.getDiariesByAuthor(author, cursor, size, preview);
+            if (webRequest.checkNotModified(DiaryEtags.of(response))) {
+                return null;
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @RateLimited("list")
+    @GetMapping("/author/{author}/calendar")
+    public ResponseEntity<DiaryCalendarResponse> getCalendar(
+            @PathVariable String author,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String unit) {
+        try {
+            DiaryCalendarResponse response = diaryCalendarService.getCalendar(author, from, to, unit);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 작성자의 생성/수정/삭제/복구를 SSE 로 보낸다. 이벤트 id 는 변경 피드 seq 이며,
+     * 다시 연결할 때 Last-Event-ID 를 보내면 그 이후 변경부터 이어 받는다.
+     * 구독자 수가 한도에 도달하면 503 을 반환한다.
+     */
+    @RateLimited("list")
+    @GetMapping(value = "/author/{author}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @PathVariable String author,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            SseEmitter emitter = diaryEventBroadcaster.subscribe(author, lastEventId);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (DiarySubscriptionLimitException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.example.diary.controller;
+
+import com.example.diary.dto.CursorPageResponse;
+import com.example.diary.dto.DiarySummaryResponse;
+import com.example.diary.exception.DiaryPreconditionFailedException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 조건부 요청(If-None-Match / If-Modified-Since / If-Match)에 쓰는 ETag 와 Last-Modified 값 계산.
+ */
+final class DiaryEtags {
+
+    private static final String VERSION_PREFIX = "v";
+
+    private DiaryEtags() {
+    }
+
+    /**
+     * 단건 ETag. 일기의 @Version 값으로 만든다. 예) "v3"
+     */
+    static String of(Long version) {
+        return "\"" + VERSION_PREFIX + version + "\"";
+    }
+
+    /**
+     * If-Match 헤더에서 기대 버전을 꺼낸다.
+     * @return 기대 버전, 헤더가 없거나 "*" 이면 null
+     * @throws DiaryPreconditionFailedException 이 서버가 발급한 형식의 ETag 가 아닌 경우
+     */
+    static Long parseVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (!tag.startsWith("\"" + VERSION_PREFIX) || !tag.endsWith("\"")) {
+            throw new DiaryPreconditionFailedException(id);
+        }
+        try {
+            return Long.valueOf(tag.substring(1 + VERSION_PREFIX.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new DiaryPreconditionFailedException(id);
+        }
+    }
+
+    /**
+     * 목록 ETag. 페이지에 포함된 (id, version) 집합과 다음 커서로부터 계산한다.
+     * 항목이 추가·수정·삭제되면 집합이 달라지므로 ETag 도 달라진다.
+     */
+    static String of(CursorPageResponse<DiarySummaryResponse> page) {
+        StringBuilder source = new StringBuilder();
+        for (DiarySummaryResponse summary : page.getContent()) {
+            source.append(summary.getId()).append(':').append(summary.getVersion()).append(';');
+        }
+        source.append(page.getNextCursor());
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.diary.controller;
+
+import com.example.diary.config.DiaryJsonWriters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ?compact=true 와 ?fields=id,title 요청 파라미터를 DiaryController 의 JSON 응답에 적용한다.
+ * 둘 다 없으면 기본 직렬화를 그대로 쓴다.
+ */
+@RestControllerAdvice(assignableTypes = DiaryController.class)
+@RequiredArgsConstructor
+class DiaryJsonResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String COMPACT_PARAM = "compact";
+    private static final String FIELDS_PARAM = "fields";
+
+    private final DiaryJsonWriters diaryJsonWriters;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        boolean compact = Boolean.parseBoolean(servletRequest.getParameter(COMPACT_PARAM));
+        Set<String> fields = parseFields(servletRequest.getParameter(FIELDS_PARAM));
+        if (!compact && fields.isEmpty()) {
+            return body;
+        }
+
+        try {
+            // 이미 직렬화된 JSON 을 컨버터가 그대로 쓰도록 RawValue 로 감싼다
+            return new RawValue(diaryJsonWriters.forRequest(compact, fields).writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("응답을 직렬화할 수 없습니다", e);
+        }
+    }
+
+    private static Set<String> parseFields(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return new LinkedHashSet<>();
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.diary.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청자(인증된 사용자 또는 원격 주소, 경로에 작성자가 있으면 작성자별로 나눔)별 토큰 버킷으로 요청 빈도를 제한한다.
+ * 한도를 넘으면 429 와 Retry-After 를 반환한다.
+ *
+ * value 는 diary.rate-limit.endpoints 의 설정 이름이며, 설정이 없으면 제한하지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+
+    String value();
+}
@@ -0,0 +1,68 @@
+package com.example.diary.controller;
+
+import com.example.diary.config.DataSourceRouting;
+import com.example.diary.config.DiaryProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 복제본 라우팅 시 자기 쓰기 읽기(read-your-writes)를 보장한다.
+ *
+ * 쓰기 요청(GET/HEAD/OPTIONS 외)이 성공하면 클라이언트(X-Client-Id 또는 원격 주소)를 기록하고,
+ * diary.replicas.read-your-writes-window 동안 그 클라이언트의 요청은 읽기도 주 DB 에서 한다.
+ * 복제 지연이 이 시간보다 짧다는 가정이며, 다른 클라이언트는 지연된 복제본 데이터를 볼 수 있다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "diary.replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(DiaryProperties diaryProperties) {
+        DiaryProperties.Replicas config = diaryProperties.getReplicas();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(config.getMaxTrackedClients())
+                .expireAfterWrite(config.getReadYourWritesWindow())
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST
+                && recentWriters.getIfPresent(ClientIds.of(request)) != null) {
+            DataSourceRouting.forcePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // 비동기 처리로 넘어가면 요청 스레드는 반환되므로 여기서 정리한다
+        DataSourceRouting.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        DataSourceRouting.clear();
+        if (isWrite(request) && ex == null && response.getStatus() < 400) {
+            recentWriters.put(ClientIds.of(request), Boolean.TRUE);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method)
+                && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+}
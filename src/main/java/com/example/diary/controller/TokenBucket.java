@@ -0,0 +1,52 @@
+package com.example.diary.controller;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 잠금 없는(CAS) 토큰 버킷. 상태(남은 토큰, 마지막 갱신 시각)를 불변 객체 하나로 두고 통째로 교체한다.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException(
+                    "버킷 크기는 1 이상, 충전 속도는 0 보다 커야 합니다: " + capacity + ", " + refillPerSecond);
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * 토큰 하나를 가져간다.
+     * @return 성공하면 0, 실패하면 다음 토큰이 생길 때까지 남은 나노초
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            long timestamp = Math.max(current.timestamp, nowNanos);
+            double tokens = Math.min(capacity, current.tokens + (timestamp - current.timestamp) * refillPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, timestamp))) {
+                return 0;
+            }
+        }
+    }
+
+    private static final class State {
+
+        private final double tokens;
+        private final long timestamp;
+
+        State(double tokens, long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.diary.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CacheStatsResponse {
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+
+    public static CacheStatsResponse of(CacheStats stats, long size) {
+        return CacheStatsResponse.builder()
+                .size(size)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
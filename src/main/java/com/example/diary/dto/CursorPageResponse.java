@@ -0,0 +1,33 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class CursorPageResponse<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    private CursorPageResponse(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * size + 1 건으로 조회한 결과에서 페이지를 만든다.
+     * 초과분이 있으면 다음 페이지가 있는 것으로 보고 마지막 항목으로 커서를 만든다.
+     */
+    public static <T> CursorPageResponse<T> of(List<T> fetched, int size, Function<T, DiaryCursor> cursorOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> content = hasNext ? fetched.subList(0, size) : fetched;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(content, content.size(), hasNext, nextCursor);
+    }
+}
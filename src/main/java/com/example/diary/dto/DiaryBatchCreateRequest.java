@@ -0,0 +1,25 @@
+package com.example.diary.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class DiaryBatchCreateRequest {
+
+    @Valid
+    @NotEmpty(message = "생성할 일기 목록은 필수입니다")
+    @Size(max = 500, message = "한 번에 500건을 초과하여 생성할 수 없습니다")
+    private List<DiaryCreateRequest> diaries;
+
+    @Builder
+    public DiaryBatchCreateRequest(List<DiaryCreateRequest> diaries) {
+        this.diaries = diaries;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.diary.dto;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class DiaryBatchDeleteRequest {
+
+    @NotEmpty(message = "삭제할 일기 ID 목록은 필수입니다")
+    @Size(max = 500, message = "한 번에 500건을 초과하여 삭제할 수 없습니다")
+    private List<Long> ids;
+
+    @Builder
+    public DiaryBatchDeleteRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+}
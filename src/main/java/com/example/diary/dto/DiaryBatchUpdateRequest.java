@@ -0,0 +1,47 @@
+package com.example.diary.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class DiaryBatchUpdateRequest {
+
+    @Valid
+    @NotEmpty(message = "수정할 일기 목록은 필수입니다")
+    @Size(max = 500, message = "한 번에 500건을 초과하여 수정할 수 없습니다")
+    private List<Item> diaries;
+
+    @Builder
+    public DiaryBatchUpdateRequest(List<Item> diaries) {
+        this.diaries = diaries;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "일기 ID 는 필수입니다")
+        private Long id;
+
+        @Size(max = 100, message = "제목은 100자를 초과할 수 없습니다")
+        private String title;
+
+        @Size(max = 1000, message = "내용은 1000자를 초과할 수 없습니다")
+        private String content;
+
+        @Builder
+        public Item(Long id, String title, String content) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.diary.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 작성자의 기간별 일기 수. 일기가 없는 날(월)은 counts 에 포함하지 않는다.
+ */
+@Getter
+@Builder
+public class DiaryCalendarResponse {
+
+    private String author;
+    private LocalDate from;
+    private LocalDate to;
+    private String unit;
+    private long total;
+    private List<DiaryDateCount> counts;
+}
@@ -0,0 +1,35 @@
+package com.example.diary.dto;
+
+import com.example.diary.entity.DiaryChange;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 변경 피드의 한 항목.
+ * diary 는 생성/수정/복구 항목에 현재 일기 내용을 담으며, 삭제 항목(tombstone)이거나
+ * 이후 삭제된 일기면 null 이다.
+ */
+@Getter
+public class DiaryChangeResponse {
+
+    private final long seq;
+    private final DiaryChange.Type type;
+    private final Long diaryId;
+    private final String author;
+    private final LocalDateTime changedAt;
+    private final DiaryResponse diary;
+
+    private DiaryChangeResponse(DiaryChange change, DiaryResponse diary) {
+        this.seq = change.getSeq();
+        this.type = change.getType();
+        this.diaryId = change.getDiaryId();
+        this.author = change.getAuthor();
+        this.changedAt = change.getChangedAt();
+        this.diary = diary;
+    }
+
+    public static DiaryChangeResponse of(DiaryChange change, DiaryResponse diary) {
+        return new DiaryChangeResponse(change, diary);
+    }
+}
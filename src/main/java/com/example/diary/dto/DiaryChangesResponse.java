@@ -0,0 +1,27 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 변경 피드 조회 결과. 다음 조회에는 nextSince 를 since 로 넘긴다.
+ */
+@Getter
+public class DiaryChangesResponse {
+
+    private final List<DiaryChangeResponse> changes;
+    private final long nextSince;
+    private final boolean hasMore;
+
+    public DiaryChangesResponse(List<DiaryChangeResponse> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    public static DiaryChangesResponse empty(long since) {
+        return new DiaryChangesResponse(Collections.emptyList(), since, false);
+    }
+}
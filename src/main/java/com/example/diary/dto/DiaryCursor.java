@@ -0,0 +1,47 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * (createdAt, id) 기준 키셋 페이지네이션 커서.
+ * 클라이언트에는 Base64 URL-safe 문자열로만 노출된다.
+ */
+@Getter
+public class DiaryCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public DiaryCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DiaryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new DiaryCursor(createdAt, id);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
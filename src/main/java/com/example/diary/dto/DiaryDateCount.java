@@ -0,0 +1,19 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+/**
+ * 달력의 한 칸(일 또는 월)과 그 기간의 일기 수
+ */
+@Getter
+public class DiaryDateCount {
+
+    /** 일 단위는 yyyy-MM-dd, 월 단위는 yyyy-MM */
+    private final String date;
+    private final long count;
+
+    public DiaryDateCount(String date, long count) {
+        this.date = date;
+        this.count = count;
+    }
+}
@@ -16,6 +16,7 @@ public class DiaryResponse {
     private String author;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public static DiaryResponse from(Diary diary) {
         return DiaryResponse.builder()
@@ -25,6 +26,7 @@ public class DiaryResponse {
                 .author(diary.getAuthor())
                 .createdAt(diary.getCreatedAt())
                 .updatedAt(diary.getUpdatedAt())
+                .version(diary.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,18 @@
+package com.example.diary.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DiarySearchResponse {
+
+    private List<DiaryResponse> content;
+    private int page;
+    private int size;
+    /** 색인 기준 일치 건수. 방금 삭제되어 색인에만 남은 일기가 포함될 수 있는 근사값이다 */
+    private long totalHits;
+    private boolean hasNext;
+}
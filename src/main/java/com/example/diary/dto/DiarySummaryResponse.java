@@ -0,0 +1,32 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록 화면용 일기 요약. 내용(content) 전체 대신 선택적인 미리보기만 담는다.
+ * JPQL 생성자 표현식(select new ...)으로 직접 조회되므로 엔티티를 거치지 않는다.
+ */
+@Getter
+public class DiarySummaryResponse {
+
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final String contentPreview;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+
+    public DiarySummaryResponse(Long id, String title, String author, String contentPreview,
+                                LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.contentPreview = contentPreview == null || contentPreview.isEmpty() ? null : contentPreview;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 조건부 요청 검증용 일기 버전 정보. 본문 없이 버전과 수정일시만 담는다.
+ */
+@Getter
+public class DiaryVersion {
+
+    private final Long version;
+    private final LocalDateTime updatedAt;
+
+    public DiaryVersion(Long version, LocalDateTime updatedAt) {
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.diary.dto;
+
+import lombok.Getter;
+
+/**
+ * 쓰기 지연(write-behind) 모드에서 접수된 일기 생성 요청의 처리 상태.
+ * 접수 시 발급한 ticket 으로 조회한다. diaryId 는 접수할 때 예약한 ID 로, 저장되면 그 ID 로 조회할 수 있다.
+ * 저장에 실패하면(FAILED) 예약한 ID 는 쓰이지 않으므로 diaryId 는 비운다.
+ */
+@Getter
+public class DiaryWriteStatusResponse {
+
+    public enum Status {
+        PENDING, CREATED, FAILED
+    }
+
+    private final String ticket;
+    private final Status status;
+    private final Long diaryId;
+
+    private DiaryWriteStatusResponse(String ticket, Status status, Long diaryId) {
+        this.ticket = ticket;
+        this.status = status;
+        this.diaryId = diaryId;
+    }
+
+    public static DiaryWriteStatusResponse pending(String ticket, Long diaryId) {
+        return new DiaryWriteStatusResponse(ticket, Status.PENDING, diaryId);
+    }
+
+    public static DiaryWriteStatusResponse created(String ticket, Long diaryId) {
+        return new DiaryWriteStatusResponse(ticket, Status.CREATED, diaryId);
+    }
+
+    public static DiaryWriteStatusResponse failed(String ticket) {
+        return new DiaryWriteStatusResponse(ticket, Status.FAILED, null);
+    }
+}
@@ -5,44 +5,92 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Where;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+/**
+ * 스키마는 Flyway 마이그레이션(db/migration)이 관리하며, 매핑은 기동 시 validate 로 검증한다.
+ * 아래 인덱스 선언은 문서용이다.
+ *
+ * 삭제는 deletedAt 을 채우는 soft delete 이며, 엔티티 조회와 JPQL 에는 삭제되지 않은 행만 보인다.
+ * 삭제된 행은 DiaryPurgeJob 이 보관 기간 후 영구 삭제한다.
+ *
+ * 엔티티 기반 수정은 @DynamicUpdate 로 바뀐 컬럼만 UPDATE 한다 (제목만 바꾸면 content 를 다시 쓰지 않는다).
+ *
+ * ID 는 DiaryIdGenerator 가 diary_seq 로 만들며, 샤딩을 쓰면 하위 비트에 샤드 번호가 들어간다.
+ *
+ * 긴 본문은 DiaryContentConverter 가 압축해 저장한다. 목록 쿼리는 본문 대신 평문 앞부분(contentPreview)을 읽는다.
+ */
 @Entity
-@Table(name = "diary")
+@Table(name = "diary", indexes = {
+        @Index(name = "idx_diary_author_created_at_id", columnList = "author, created_at DESC, id DESC"),
+        @Index(name = "idx_diary_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_diary_deleted_at", columnList = "deleted_at")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @EntityListeners(AuditingEntityListener.class)
+@Where(clause = "deleted_at IS NULL")
+@DynamicUpdate
 public class Diary {
 
+    /**
+     * content 컬럼 길이. DB 별 타입 이름 대신 길이로 매핑해 방언이 타입을 고르게 한다
+     * (H2/PostgreSQL 은 VARCHAR, MySQL 은 TEXT 계열). V1 의 길이 없는 CHARACTER VARYING 과 호환된다.
+     */
+    public static final int CONTENT_MAX_LENGTH = 1_000_000;
+
+    /** contentPreview 에 담는 본문 앞부분의 최대 글자 수 (V6 마이그레이션의 컬럼 길이) */
+    public static final int PREVIEW_LENGTH = 200;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "diary_id_generator")
+    @GenericGenerator(name = "diary_id_generator", strategy = "com.example.diary.entity.DiaryIdGenerator")
     private Long id;
 
     @Column(nullable = false, length = 100)
     private String title;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @Column(nullable = false, length = CONTENT_MAX_LENGTH)
+    @Convert(converter = DiaryContentConverter.class)
     private String content;
 
+    /** V6 이전에 저장된 행은 본문을 수정하기 전까지 null 이다 */
+    @Column(name = "content_preview", length = PREVIEW_LENGTH)
+    private String contentPreview;
+
     @Column(nullable = false, length = 50)
     private String author;
 
     @CreatedDate
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /**
+     * @param id 미리 예약한 ID (DiaryIdGenerator 로 받은 값). 보통은 지정하지 않고 저장할 때 생성한다
+     */
     @Builder
-    public Diary(String title, String content, String author) {
+    public Diary(Long id, String title, String content, String author) {
+        this.id = id;
         this.title = title;
         this.content = content;
+        this.contentPreview = previewOf(content);
         this.author = author;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -55,6 +103,21 @@ public class Diary {
 
     public void updateContent(String content) {
         this.content = content;
+        this.contentPreview = previewOf(content);
         this.updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * 본문의 앞 PREVIEW_LENGTH 글자. 서로게이트 쌍 중간에서 자르지 않는다.
+     */
+    public static String previewOf(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        int end = PREVIEW_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
 }
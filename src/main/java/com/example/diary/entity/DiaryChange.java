@@ -0,0 +1,51 @@
+package com.example.diary.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 변경 피드의 한 항목 (추가만 하는 로그).
+ * 행은 DiaryChangeLog 가 커밋 직전에 네이티브 INSERT 로 추가하며, 엔티티는 조회용이다.
+ * seq 는 커밋 순서대로 증가하지만 연속적이지 않을 수 있다.
+ */
+@Entity
+@Immutable
+@Table(name = "diary_change", indexes = {
+        @Index(name = "idx_diary_change_author_seq", columnList = "author, seq"),
+        @Index(name = "idx_diary_change_changed_at", columnList = "changed_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DiaryChange {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RESTORED
+    }
+
+    @Id
+    private Long seq;
+
+    @Column(name = "diary_id", nullable = false)
+    private Long diaryId;
+
+    @Column(nullable = false, length = 50)
+    private String author;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,95 @@
+package com.example.diary.entity;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 일기 본문(content) 컬럼 변환기.
+ *
+ * UTF-8 로 COMPRESSION_THRESHOLD 바이트 이상인 본문은 deflate 로 압축해 "~z1~" + Base64 로 저장한다.
+ * 압축해도 작아지지 않으면 평문 그대로 저장한다. 컬럼 타입은 그대로(문자열)이므로 압축 도입 전의 행은
+ * 접두사가 없는 평문으로 읽힌다.
+ *
+ * 평문이 우연히 접두사로 시작하면 "~raw~" 를 붙여 저장한다. 압축 도입 전 행이 "~z1~" 로 시작해 풀리지 않으면
+ * 저장된 값을 그대로 돌려준다.
+ */
+@Converter
+public class DiaryContentConverter implements AttributeConverter<String, String> {
+
+    static final String COMPRESSED_PREFIX = "~z1~";
+    static final String RAW_PREFIX = "~raw~";
+
+    /** 이보다 짧은 본문은 압축 이득보다 Base64 와 접두사 비용이 커서 압축하지 않는다 */
+    static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Override
+    public String convertToDatabaseColumn(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] plain = content.getBytes(StandardCharsets.UTF_8);
+        if (plain.length >= COMPRESSION_THRESHOLD) {
+            String compressed = COMPRESSED_PREFIX + Base64.getEncoder().encodeToString(deflate(plain));
+            // 접두사와 Base64 는 ASCII 이므로 문자 수가 곧 바이트 수다
+            if (compressed.length() < plain.length) {
+                return compressed;
+            }
+        }
+        if (content.startsWith(COMPRESSED_PREFIX) || content.startsWith(RAW_PREFIX)) {
+            return RAW_PREFIX + content;
+        }
+        return content;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null) {
+            return null;
+        }
+        if (column.startsWith(RAW_PREFIX)) {
+            return column.substring(RAW_PREFIX.length());
+        }
+        if (column.startsWith(COMPRESSED_PREFIX)) {
+            try {
+                byte[] compressed = Base64.getDecoder().decode(column.substring(COMPRESSED_PREFIX.length()));
+                return new String(inflate(compressed), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException | IOException e) {
+                return column;
+            }
+        }
+        return column;
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(plain.length / 2);
+        try (OutputStream out = new DeflaterOutputStream(buffer)) {
+            out.write(plain);
+        } catch (IOException e) {
+            // 메모리 버퍼에 쓰므로 발생하지 않는다
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(compressed.length * 4);
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.diary.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.time.LocalDate;
+
+/**
+ * 작성자별 일자별 일기 수 (달력 조회용 집계 테이블).
+ * 일기 생성/삭제/복구 시 DiaryCalendarService 가 같은 트랜잭션에서 갱신한다.
+ */
+@Entity
+@Table(name = "diary_daily_count")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DiaryDailyCount {
+
+    @EmbeddedId
+    private DiaryDailyCountId id;
+
+    @Column(name = "entry_count", nullable = false)
+    private int entryCount;
+
+    public DiaryDailyCount(String author, LocalDate entryDate, int entryCount) {
+        this.id = new DiaryDailyCountId(author, entryDate);
+        this.entryCount = entryCount;
+    }
+
+    public LocalDate getEntryDate() {
+        return id.getEntryDate();
+    }
+}
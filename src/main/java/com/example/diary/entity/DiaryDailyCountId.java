@@ -0,0 +1,29 @@
+package com.example.diary.entity;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DiaryDailyCountId implements Serializable {
+
+    @Column(nullable = false, length = 50)
+    private String author;
+
+    @Column(name = "entry_date", nullable = false)
+    private LocalDate entryDate;
+
+    public DiaryDailyCountId(String author, LocalDate entryDate) {
+        this.author = author;
+        this.entryDate = entryDate;
+    }
+}
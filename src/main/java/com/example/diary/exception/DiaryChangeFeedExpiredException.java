@@ -0,0 +1,12 @@
+package com.example.diary.exception;
+
+/**
+ * since 이후의 변경 일부가 보관 기간이 지나 지워져 이어받을 수 없을 때 발생한다. (410 Gone)
+ * 클라이언트는 전체 목록을 다시 받은 뒤 응답의 seq 부터 다시 따라가야 한다.
+ */
+public class DiaryChangeFeedExpiredException extends RuntimeException {
+
+    public DiaryChangeFeedExpiredException(long since, long prunedSeq) {
+        super("변경 피드 보관 기간이 지났습니다. since: " + since + ", 최소 since: " + prunedSeq);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.diary.exception;
+
+/**
+ * 동시 수정으로 같은 필드가 먼저 바뀌어 요청을 적용할 수 없을 때 발생한다. (409 Conflict)
+ */
+public class DiaryConflictException extends RuntimeException {
+
+    public DiaryConflictException(Long id) {
+        super("다른 요청이 먼저 일기를 수정했습니다. ID: " + id);
+    }
+}
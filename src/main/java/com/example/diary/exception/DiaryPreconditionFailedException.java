@@ -0,0 +1,11 @@
+package com.example.diary.exception;
+
+/**
+ * If-Match 로 전달된 버전이 현재 일기 버전과 다를 때 발생한다. (412 Precondition Failed)
+ */
+public class DiaryPreconditionFailedException extends RuntimeException {
+
+    public DiaryPreconditionFailedException(Long id) {
+        super("일기 버전이 일치하지 않습니다. ID: " + id);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.diary.exception;
+
+/**
+ * 쓰기 지연(write-behind) 큐가 가득 찼거나 종료 중이라 요청을 받을 수 없을 때 발생한다. (429 Too Many Requests)
+ */
+public class DiaryQueueFullException extends RuntimeException {
+
+    public DiaryQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.diary.exception;
+
+/**
+ * 실시간 변경 구독자 수가 한도에 도달해 새 구독을 받을 수 없을 때 발생한다. (503 Service Unavailable)
+ */
+public class DiarySubscriptionLimitException extends RuntimeException {
+
+    public DiarySubscriptionLimitException(int maxSubscribers) {
+        super("구독자 수가 한도에 도달했습니다: " + maxSubscribers);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.diary.repository;
+
+import com.example.diary.entity.DiaryChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DiaryChangeRepository extends JpaRepository<DiaryChange, Long> {
+
+    /**
+     * since 이후의 변경을 seq 오름차순으로 조회
+     * @param since 마지막으로 받은 seq (미포함)
+     * @param pageable 조회할 최대 건수
+     * @return 변경 목록
+     */
+    @Query("select c from DiaryChange c where c.seq > :since order by c.seq")
+    List<DiaryChange> findAfter(@Param("since") long since, Pageable pageable);
+
+    /**
+     * 작성자의 since 이후 변경을 seq 오름차순으로 조회
+     * @param author 작성자명
+     * @param since 마지막으로 받은 seq (미포함)
+     * @param pageable 조회할 최대 건수
+     * @return 변경 목록
+     */
+    @Query("select c from DiaryChange c where c.author = :author and c.seq > :since order by c.seq")
+    List<DiaryChange> findByAuthorAfter(@Param("author") String author, @Param("since") long since,
+                                        Pageable pageable);
+
+    /**
+     * 보류 중인 변경을 flush 한 뒤 seq 를 count 개 예약한다. 이 행의 잠금은 커밋까지 유지되므로 변경을 기록하는 트랜잭션은
+     * 여기서부터 커밋까지 직렬화된다.
+     * @param count 예약할 개수
+     * @return 갱신된 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update diary_change_seq set last_seq = last_seq + :count where id = 1", nativeQuery = true)
+    int reserve(@Param("count") int count);
+
+    @Query(value = "select last_seq from diary_change_seq where id = 1", nativeQuery = true)
+    long lastSeq();
+
+    @Query(value = "select pruned_seq from diary_change_seq where id = 1", nativeQuery = true)
+    long prunedSeq();
+
+    /**
+     * 일기의 현재 작성자로 변경 항목을 추가한다. 삭제 상태의 일기도 대상이며, 없는 일기면 추가하지 않는다.
+     * @return 추가된 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into diary_change (seq, diary_id, author, change_type, changed_at) " +
+            "select :seq, d.id, d.author, :type, :changedAt from diary d where d.id = :diaryId",
+            nativeQuery = true)
+    int append(@Param("seq") long seq, @Param("diaryId") Long diaryId, @Param("type") String type,
+               @Param("changedAt") LocalDateTime changedAt);
+
+    @Query("select distinct c.author from DiaryChange c where c.seq between :from and :to")
+    List<String> findAuthorsBetween(@Param("from") long from, @Param("to") long to);
+
+    @Query("select max(c.seq) from DiaryChange c where c.changedAt < :changedBefore")
+    Long findMaxSeqChangedBefore(@Param("changedBefore") LocalDateTime changedBefore);
+
+    /**
+     * upTo 이하의 변경 삭제
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from DiaryChange c where c.seq <= :upTo")
+    int deleteUpTo(@Param("upTo") long upTo);
+
+    /**
+     * upTo 까지 지워졌음을 기록한다. 이보다 작은 since 로는 변경을 이어받을 수 없다.
+     * @return 갱신된 행 수
+     */
+    @Modifying
+    @Query(value = "update diary_change_seq set pruned_seq = greatest(pruned_seq, :upTo) where id = 1",
+            nativeQuery = true)
+    int markPruned(@Param("upTo") long upTo);
+}
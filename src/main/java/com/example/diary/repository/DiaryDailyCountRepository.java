@@ -0,0 +1,81 @@
+package com.example.diary.repository;
+
+import com.example.diary.entity.DiaryDailyCount;
+import com.example.diary.entity.DiaryDailyCountId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DiaryDailyCountRepository extends JpaRepository<DiaryDailyCount, DiaryDailyCountId> {
+
+    /**
+     * 작성자의 기간 내 일자별 일기 수 조회 (0 건인 날은 제외)
+     * @param author 작성자명
+     * @param from 시작일 (포함)
+     * @param to 종료일 (포함)
+     * @return 날짜 오름차순 일자별 일기 수
+     */
+    @Query("select c from DiaryDailyCount c " +
+            "where c.id.author = :author and c.id.entryDate between :from and :to and c.entryCount > 0 " +
+            "order by c.id.entryDate")
+    List<DiaryDailyCount> findByAuthorBetween(@Param("author") String author,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    /**
+     * 일자별 일기 수를 delta 만큼 더한다. 행이 없으면 delta 로 만든다 (단일 MERGE).
+     * @param author 작성자명
+     * @param entryDate 작성일
+     * @param delta 증감량
+     * @return 반영된 행 수
+     */
+    @Modifying
+    @Query(value = "merge into diary_daily_count c " +
+            "using (values (cast(:author as varchar(50)), cast(:entryDate as date), cast(:delta as int))) " +
+            "s(author, entry_date, delta) " +
+            "on c.author = s.author and c.entry_date = s.entry_date " +
+            "when matched then update set entry_count = c.entry_count + s.delta " +
+            "when not matched then insert (author, entry_date, entry_count) values (s.author, s.entry_date, s.delta)",
+            nativeQuery = true)
+    int increment(@Param("author") String author, @Param("entryDate") LocalDate entryDate, @Param("delta") int delta);
+
+    /**
+     * 삭제 상태가 아닌 주어진 일기들만큼 일자별 일기 수를 줄인다.
+     * 일기를 삭제 상태로 바꾸기 전에 같은 트랜잭션에서 호출해야 한다.
+     * @param ids 삭제할 일기 ID 목록
+     * @return 갱신된 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update diary_daily_count c set entry_count = entry_count - (" +
+            "select count(*) from diary d where d.id in (:ids) and d.deleted_at is null " +
+            "and d.author = c.author and cast(d.created_at as date) = c.entry_date) " +
+            "where exists (" +
+            "select 1 from diary d where d.id in (:ids) and d.deleted_at is null " +
+            "and d.author = c.author and cast(d.created_at as date) = c.entry_date)",
+            nativeQuery = true)
+    int decrementForDiaries(@Param("ids") List<Long> ids);
+
+    /**
+     * 0 건이 된 행 삭제
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from DiaryDailyCount c where c.entryCount <= 0")
+    int deleteEmpty();
+
+    /**
+     * 전체 행 삭제 (집계 재구성용).
+     * 벌크 삭제는 영속성 컨텍스트를 거치지 않으므로, 이미 읽어 둔 집계 엔티티가 남아 이후 저장이 INSERT 대신
+     * 그 엔티티로 병합되지 않도록 삭제 후 영속성 컨텍스트를 비운다.
+     * @return 삭제된 행 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from DiaryDailyCount c")
+    int deleteAllCounts();
+}
@@ -1,25 +1,178 @@
 package com.example.diary.repository;
 
+import com.example.diary.dto.DiarySummaryResponse;
+import com.example.diary.dto.DiaryVersion;
 import com.example.diary.entity.Diary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface DiaryRepository extends JpaRepository<Diary, Long> {
+public interface DiaryRepository extends JpaRepository<Diary, Long>, DiaryRepositoryCustom {
+
+    /**
+     * 목록 조회용 요약 프로젝션. 본문(content) 대신 평문 앞부분 컬럼을 미리보기 길이만큼 잘라서 가져온다.
+     * 미리보기 컬럼이 비어 있는 V6 이전 행은 압축 전 평문이므로 본문에서 자른다.
+     */
+    String SUMMARY_SELECT = "select new com.example.diary.dto.DiarySummaryResponse(" +
+            "d.id, d.title, d.author, substring(coalesce(d.contentPreview, d.content), 1, :previewLength), " +
+            "d.createdAt, d.updatedAt, d.version) " +
+            "from Diary d ";
     
     /**
-     * 작성자별 일기 목록 조회
+     * 일기의 버전과 수정일시만 조회 (조건부 요청 검증용, content 를 읽지 않는다)
+     * @param id 일기 ID
+     * @return 버전 정보
+     */
+    @Query("select new com.example.diary.dto.DiaryVersion(d.version, d.updatedAt) from Diary d where d.id = :id")
+    Optional<DiaryVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * 내용을 제외한 일기 요약 조회 (부분 수정 응답용)
+     * @param id 일기 ID
+     * @return 미리보기 없는 일기 요약
+     */
+    @Query("select new com.example.diary.dto.DiarySummaryResponse(" +
+            "d.id, d.title, d.author, '', d.createdAt, d.updatedAt, d.version) " +
+            "from Diary d where d.id = :id")
+    Optional<DiarySummaryResponse> findSummaryWithoutContentById(@Param("id") Long id);
+
+    /**
+     * 최신순 일기 요약 목록의 첫 페이지 조회
+     * @param previewLength 내용 미리보기 글자 수 (0 이면 미리보기 없음)
+     * @param pageable 조회 건수 (offset 은 항상 0)
+     * @return (createdAt, id) 내림차순 일기 요약 목록
+     */
+    @Query(SUMMARY_SELECT +
+            "order by d.createdAt desc, d.id desc")
+    List<DiarySummaryResponse> findSummaryFirstPage(@Param("previewLength") int previewLength,
+                                                    Pageable pageable);
+
+    /**
+     * 커서 이후의 최신순 일기 요약 목록 조회 (키셋 페이지네이션)
+     * @param createdAt 커서의 생성일시
+     * @param id 커서의 일기 ID
+     * @param previewLength 내용 미리보기 글자 수 (0 이면 미리보기 없음)
+     * @param pageable 조회 건수 (offset 은 항상 0)
+     * @return 커서보다 오래된 일기 요약 목록
+     */
+    @Query(SUMMARY_SELECT +
+            "where d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id) " +
+            "order by d.createdAt desc, d.id desc")
+    List<DiarySummaryResponse> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    @Param("previewLength") int previewLength,
+                                                    Pageable pageable);
+
+    /**
+     * 작성자별 최신순 일기 요약 목록의 첫 페이지 조회
+     * (author, created_at desc, id desc) 인덱스를 사용한다.
      * @param author 작성자명
-     * @return 해당 작성자의 일기 목록
+     * @param previewLength 내용 미리보기 글자 수 (0 이면 미리보기 없음)
+     * @param pageable 조회 건수 (offset 은 항상 0)
+     * @return 해당 작성자의 (createdAt, id) 내림차순 일기 요약 목록
      */
-    List<Diary> findByAuthor(String author);
-    
+    @Query(SUMMARY_SELECT +
+            "where d.author = :author " +
+            "order by d.createdAt desc, d.id desc")
+    List<DiarySummaryResponse> findSummaryFirstPageByAuthor(@Param("author") String author,
+                                                            @Param("previewLength") int previewLength,
+                                                            Pageable pageable);
+
+    /**
+     * 커서 이후의 작성자별 최신순 일기 요약 목록 조회 (키셋 페이지네이션)
+     * @param author 작성자명
+     * @param createdAt 커서의 생성일시
+     * @param id 커서의 일기 ID
+     * @param previewLength 내용 미리보기 글자 수 (0 이면 미리보기 없음)
+     * @param pageable 조회 건수 (offset 은 항상 0)
+     * @return 커서보다 오래된 해당 작성자의 일기 요약 목록
+     */
+    @Query(SUMMARY_SELECT +
+            "where d.author = :author " +
+            "and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id)) " +
+            "order by d.createdAt desc, d.id desc")
+    List<DiarySummaryResponse> findSummaryPageByAuthorAfter(@Param("author") String author,
+                                                            @Param("createdAt") LocalDateTime createdAt,
+                                                            @Param("id") Long id,
+                                                            @Param("previewLength") int previewLength,
+                                                            Pageable pageable);
+
+    /**
+     * 작성자별 일자별 일기 수 집계 (GROUP BY, 달력 집계 테이블 재구성용)
+     * @return [작성자, 작성일(java.sql.Date), 일기 수] 목록
+     */
+    @Query("select d.author, cast(d.createdAt as date), count(d) from Diary d " +
+            "group by d.author, cast(d.createdAt as date)")
+    List<Object[]> countPerAuthorAndDay();
+
+    /**
+     * 전체 일기를 ID 순으로 스트리밍 조회 (내보내기용)
+     * 호출 측은 트랜잭션 안에서 스트림을 소비하고 반드시 닫아야 한다.
+     * @return 일기 스트림
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select d from Diary d order by d.id")
+    Stream<Diary> streamAll();
+
+    /**
+     * 일기를 삭제 상태로 표시 (단일 UPDATE, 엔티티를 읽지 않는다)
+     * @param id 일기 ID
+     * @param deletedAt 삭제일시
+     * @return 삭제 상태로 바뀐 행 수 (없거나 이미 삭제된 경우 0)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Diary d set d.deletedAt = :deletedAt, d.version = d.version + 1 " +
+            "where d.id = :id and d.deletedAt is null")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * 여러 일기를 삭제 상태로 표시 (단일 UPDATE ... WHERE id IN (...))
+     * @param ids 일기 ID 목록
+     * @param deletedAt 삭제일시
+     * @return 삭제 상태로 바뀐 행 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Diary d set d.deletedAt = :deletedAt, d.version = d.version + 1 " +
+            "where d.id in :ids and d.deletedAt is null")
+    int softDeleteAllById(@Param("ids") List<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * 삭제 상태의 일기를 복구
+     * 엔티티의 삭제 필터(@Where)를 거치지 않도록 네이티브 쿼리를 쓴다.
+     * @param id 일기 ID
+     * @return 복구된 행 수 (없거나 삭제 상태가 아니면 0)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update diary set deleted_at = null, version = version + 1 " +
+            "where id = :id and deleted_at is not null", nativeQuery = true)
+    int restoreById(@Param("id") Long id);
+
     /**
-     * 제목에 특정 키워드가 포함된 일기 목록 조회
-     * @param keyword 검색 키워드
-     * @return 키워드가 포함된 일기 목록
+     * 기준 시각 이전에 삭제된 일기를 최대 limit 건 영구 삭제
+     * @param deletedBefore 이 시각 이전에 삭제된 행만 대상
+     * @param limit 최대 삭제 건수
+     * @return 영구 삭제된 행 수
      */
-    List<Diary> findByTitleContaining(String keyword);
+    @Modifying
+    @Query(value = "delete from diary where id in (" +
+            "select id from diary where deleted_at < :deletedBefore order by id fetch first :limit rows only)",
+            nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedBefore") LocalDateTime deletedBefore, @Param("limit") int limit);
 }
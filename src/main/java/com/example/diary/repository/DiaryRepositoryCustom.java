@@ -0,0 +1,21 @@
+package com.example.diary.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spring Data 쿼리 메서드로 표현하기 어려운 DiaryRepository 기능
+ */
+public interface DiaryRepositoryCustom {
+
+    /**
+     * null 이 아닌 필드(제목/내용)와 수정일시만 단일 UPDATE 로 바꾸고 버전을 올린다.
+     * 엔티티를 읽지 않으며, 영속성 컨텍스트는 UPDATE 전에 flush 되고 후에 비워진다.
+     * @param id 일기 ID
+     * @param title 새 제목 (null 이면 유지)
+     * @param content 새 내용 (null 이면 유지)
+     * @param updatedAt 수정일시
+     * @param expectedVersion 현재 버전이 이 값일 때만 수정 (null 이면 버전과 무관)
+     * @return 수정된 행 수 (없거나 삭제됐거나 버전이 다르면 0)
+     */
+    int patch(Long id, String title, String content, LocalDateTime updatedAt, Long expectedVersion);
+}
@@ -0,0 +1,49 @@
+package com.example.diary.repository;
+
+import com.example.diary.entity.Diary;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class DiaryRepositoryImpl implements DiaryRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, String title, String content, LocalDateTime updatedAt, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Diary> update = cb.createCriteriaUpdate(Diary.class);
+        Root<Diary> diary = update.from(Diary.class);
+
+        if (title != null) {
+            update.set(diary.<String>get("title"), title);
+        }
+        if (content != null) {
+            update.set(diary.<String>get("content"), content);
+            update.set(diary.<String>get("contentPreview"), Diary.previewOf(content));
+        }
+        update.set(diary.<LocalDateTime>get("updatedAt"), updatedAt);
+        update.set(diary.<Long>get("version"), cb.sum(diary.<Long>get("version"), 1L));
+
+        List<Predicate> conditions = new ArrayList<>();
+        conditions.add(cb.equal(diary.get("id"), id));
+        conditions.add(cb.isNull(diary.get("deletedAt")));
+        if (expectedVersion != null) {
+            conditions.add(cb.equal(diary.get("version"), expectedVersion));
+        }
+        update.where(conditions.toArray(new Predicate[0]));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 일기 단건 조회 결과(DiaryResponse)를 ID 기준으로 보관하는 프로세스 내 캐시.
+ *
+ * 쓰기 트랜잭션은 값을 직접 덮어쓰지 않고 무효화만 한다. 변경 직후와 커밋(또는 롤백) 직후에
+ * 두 번 무효화하며, 같은 키의 적재(loader)와 무효화는 Caffeine 안에서 직렬화되므로
+ * 동시에 읽던 요청이 커밋 이전 값을 다시 채워 넣더라도 커밋 이후의 무효화가 이를 제거한다.
+ *
+ * 복제본 라우팅을 쓰면 커밋 후에도 복제본이 따라잡기 전까지는 이전 값이 다시 적재될 수 있으므로,
+ * diary.replicas.read-your-writes-window(복제 지연 상한으로 가정하는 시간)가 지난 뒤 한 번 더 무효화한다.
+ *
+ * MeterBinder 빈이므로 적중률/크기/제거 수가 cache.* 메트릭(cache=diaries)으로 노출된다.
+ */
+@Component
+public class DiaryCache implements MeterBinder {
+
+    static final String CACHE_NAME = "diaries";
+
+    private final Cache<Long, DiaryResponse> cache;
+
+    /** 복제 지연이 지난 뒤 다시 무효화하는 실행기. 복제본 라우팅을 쓰지 않으면 null */
+    private final Executor replicaLagEviction;
+
+    public DiaryCache(DiaryProperties diaryProperties) {
+        DiaryProperties.Cache config = diaryProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLive())
+                .recordStats()
+                .build();
+        DiaryProperties.Replicas replicas = diaryProperties.getReplicas();
+        this.replicaLagEviction = replicas.isEnabled()
+                ? CompletableFuture.delayedExecutor(
+                        replicas.getReadYourWritesWindow().toMillis(), TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    /**
+     * 캐시에 있으면 반환하고, 없으면 loader 로 적재한다.
+     * loader 가 null 을 반환하면 캐시하지 않고 null 을 반환한다.
+     */
+    public DiaryResponse get(Long id, Function<Long, DiaryResponse> loader) {
+        return cache.get(id, loader);
+    }
+
+    public DiaryResponse getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * 새로 만든 일기를 커밋 후에 캐시에 넣는다. 롤백되면 아무것도 하지 않는다.
+     */
+    public void putAfterCommit(DiaryResponse response) {
+        TransactionCallbacks.afterCommit(() -> cache.put(response.getId(), response));
+    }
+
+    /**
+     * 즉시 무효화하고, 현재 트랜잭션이 끝난 뒤(커밋/롤백 모두) 한 번 더 무효화한다.
+     * 복제본 라우팅을 쓰면 그 뒤 복제 지연 시간이 지나 다시 무효화한다.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+        TransactionCallbacks.afterCompletion(() -> {
+            cache.invalidate(id);
+            if (replicaLagEviction != null) {
+                replicaLagEviction.execute(() -> cache.invalidate(id));
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
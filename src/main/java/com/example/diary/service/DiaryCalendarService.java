@@ -0,0 +1,144 @@
+package com.example.diary.service;
+
+import com.example.diary.config.ShardKey;
+import com.example.diary.dto.DiaryCalendarResponse;
+import com.example.diary.dto.DiaryDateCount;
+import com.example.diary.entity.Diary;
+import com.example.diary.entity.DiaryDailyCount;
+import com.example.diary.entity.DiaryDailyCountId;
+import com.example.diary.repository.DiaryDailyCountRepository;
+import com.example.diary.repository.DiaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 작성자별 달력(일/월별 일기 수) 조회와 집계 테이블(diary_daily_count) 갱신.
+ *
+ * 갱신 메서드는 DiaryService 의 쓰기 트랜잭션 안에서 호출되므로 일기와 집계가 함께 커밋/롤백된다.
+ * 샤딩을 쓰면 집계 행은 작성자의 일기와 같은 샤드에 있다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DiaryCalendarService {
+
+    private static final String UNIT_DAY = "day";
+    private static final String UNIT_MONTH = "month";
+    private static final long MAX_RANGE_DAYS = 366 * 10;
+
+    private final DiaryDailyCountRepository diaryDailyCountRepository;
+    private final DiaryRepository diaryRepository;
+    private final DiaryShardTemplate diaryShardTemplate;
+
+    /**
+     * 기간 내 일자별(또는 월별) 일기 수를 반환한다. 집계 테이블만 읽으므로 비용은 일수에 비례한다.
+     * @param unit day(기본) 또는 month
+     * @throws IllegalArgumentException 기간이나 단위가 잘못된 경우
+     */
+    public DiaryCalendarResponse getCalendar(@ShardKey String author, LocalDate from, LocalDate to, String unit) {
+        String resolvedUnit = unit == null ? UNIT_DAY : unit;
+        if (!UNIT_DAY.equals(resolvedUnit) && !UNIT_MONTH.equals(resolvedUnit)) {
+            throw new IllegalArgumentException("단위는 day 또는 month 여야 합니다: " + unit);
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦습니다: " + from + " > " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("조회 기간은 " + MAX_RANGE_DAYS + "일을 넘을 수 없습니다");
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (DiaryDailyCount daily : diaryDailyCountRepository.findByAuthorBetween(author, from, to)) {
+            String key = UNIT_MONTH.equals(resolvedUnit)
+                    ? YearMonth.from(daily.getEntryDate()).toString()
+                    : daily.getEntryDate().toString();
+            counts.merge(key, (long) daily.getEntryCount(), Long::sum);
+        }
+
+        List<DiaryDateCount> dateCounts = counts.entrySet().stream()
+                .map(entry -> new DiaryDateCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return DiaryCalendarResponse.builder()
+                .author(author)
+                .from(from)
+                .to(to)
+                .unit(resolvedUnit)
+                .total(counts.values().stream().mapToLong(Long::longValue).sum())
+                .counts(dateCounts)
+                .build();
+    }
+
+    /**
+     * 새로 저장된 일기를 (작성자, 작성일)별로 묶어 집계에 더한다.
+     */
+    @Transactional
+    public void recordCreated(Collection<Diary> diaries) {
+        Map<DiaryDailyCountId, Integer> deltas = new LinkedHashMap<>();
+        for (Diary diary : diaries) {
+            deltas.merge(new DiaryDailyCountId(diary.getAuthor(), diary.getCreatedAt().toLocalDate()), 1, Integer::sum);
+        }
+        deltas.forEach((key, delta) -> diaryDailyCountRepository.increment(key.getAuthor(), key.getEntryDate(), delta));
+    }
+
+    /**
+     * 삭제 상태로 바뀔 일기들을 집계에서 뺀다. 삭제 UPDATE 전에 호출해야 한다.
+     */
+    @Transactional
+    public void recordDeleting(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            diaryDailyCountRepository.decrementForDiaries(ids);
+        }
+    }
+
+    /**
+     * 복구된 일기를 집계에 다시 더한다.
+     */
+    @Transactional
+    public void recordRestored(Diary diary) {
+        diaryDailyCountRepository.increment(diary.getAuthor(), diary.getCreatedAt().toLocalDate(), 1);
+    }
+
+    /**
+     * 0 건이 된 집계 행을 지운다.
+     * @return 지운 행 수
+     */
+    @Transactional
+    public int pruneEmpty() {
+        return diaryDailyCountRepository.deleteEmpty();
+    }
+
+    /**
+     * 일기 테이블의 GROUP BY 집계로 집계 테이블 전체를 다시 만든다. 샤딩을 쓰면 샤드마다 한 트랜잭션씩이다.
+     * @return 만들어진 (작성자, 일자) 행 수
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int rebuild() {
+        return diaryShardTemplate.writeEach(this::rebuildShard).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    private int rebuildShard() {
+        diaryDailyCountRepository.deleteAllCounts();
+        List<DiaryDailyCount> rebuilt = new ArrayList<>();
+        for (Object[] row : diaryRepository.countPerAuthorAndDay()) {
+            rebuilt.add(new DiaryDailyCount((String) row[0], ((Date) row[1]).toLocalDate(),
+                    ((Number) row[2]).intValue()));
+        }
+        diaryDailyCountRepository.saveAll(rebuilt);
+        return rebuilt.size();
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DataSourceRouting;
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryChangeResponse;
+import com.example.diary.dto.DiaryChangesResponse;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.entity.Diary;
+import com.example.diary.entity.DiaryChange;
+import com.example.diary.exception.DiaryChangeFeedExpiredException;
+import com.example.diary.repository.DiaryChangeRepository;
+import com.example.diary.repository.DiaryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 변경 피드 조회와 롱 폴링.
+ *
+ * 기다릴 변경이 없으면 요청 스레드를 붙잡지 않고 CompletableFuture 를 돌려준다.
+ * 커밋 후 DiaryChangedEvent 가 발행되면, 변경된 작성자(또는 전체)를 기다리던 요청만
+ * 전용 스레드에서 다시 조회해 변경이 있을 때 완료한다. 대기 시간이 지나면 빈 결과로 완료한다.
+ *
+ * 샤딩을 쓰면 seq 가 샤드마다 따로 증가하므로 작성자(author)를 지정한 조회만 받는다.
+ */
+@Component
+public class DiaryChangeFeed implements MeterBinder, DisposableBean {
+
+    private final DiaryChangeRepository diaryChangeRepository;
+    private final DiaryRepository diaryRepository;
+    private final DiaryProperties.Changes config;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DiaryShardTemplate diaryShardTemplate;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor executor;
+
+    public DiaryChangeFeed(DiaryChangeRepository diaryChangeRepository,
+                           DiaryRepository diaryRepository,
+                           DiaryProperties diaryProperties,
+                           PlatformTransactionManager transactionManager,
+                           DiaryShardTemplate diaryShardTemplate) {
+        this.diaryChangeRepository = diaryChangeRepository;
+        this.diaryRepository = diaryRepository;
+        this.config = diaryProperties.getChanges();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.diaryShardTemplate = diaryShardTemplate;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "diary-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * since 이후의 변경을 조회한다. since 가 없으면 변경 없이 현재 마지막 seq 만 반환하므로,
+     * 처음 동기화하는 클라이언트는 이 값을 받은 뒤 전체 목록을 받고 그 seq 부터 따라가면 된다.
+     * @throws IllegalArgumentException since 나 limit 이 잘못되었거나, 샤딩을 쓰는데 author 가 없는 경우
+     * @throws DiaryChangeFeedExpiredException since 이후 변경 일부가 보관 기간이 지나 지워진 경우
+     */
+    public DiaryChangesResponse getChanges(Long since, Integer limit, String author) {
+        requireAuthorIfSharded(author);
+        int pageSize = resolve(since, limit);
+        return load(since, pageSize, author);
+    }
+
+    /**
+     * 현재 스레드에 지정된 샤드의 모든 작성자 변경을 조회한다. DiaryEventBroadcaster 가 샤드를 돌며 호출한다.
+     */
+    DiaryChangesResponse getShardChanges(Long since, Integer limit) {
+        return loadShard(since, resolve(since, limit), null);
+    }
+
+    /**
+     * getChanges 와 같지만, 변경이 없으면 최대 waitSeconds(상한 diary.changes.max-wait) 동안 기다린다.
+     * 조회 실패(DiaryChangeFeedExpiredException 등)는 반환한 future 의 예외로 전달한다.
+     * @throws IllegalArgumentException since, limit, waitSeconds 가 잘못되었거나, 샤딩을 쓰는데 author 가 없는 경우
+     */
+    public CompletableFuture<DiaryChangesResponse> poll(Long since, Integer limit, String author,
+                                                        Integer waitSeconds) {
+        requireAuthorIfSharded(author);
+        int pageSize = resolve(since, limit);
+        if (waitSeconds != null && waitSeconds < 0) {
+            throw new IllegalArgumentException("wait 는 0 이상이어야 합니다: " + waitSeconds);
+        }
+        Duration wait = waitSeconds == null ? Duration.ZERO : Duration.ofSeconds(waitSeconds);
+        if (wait.compareTo(config.getMaxWait()) > 0) {
+            wait = config.getMaxWait();
+        }
+
+        if (since == null || wait.isZero() || waiters.size() >= config.getMaxWaiters()) {
+            CompletableFuture<DiaryChangesResponse> future = new CompletableFuture<>();
+            try {
+                future.complete(load(since, pageSize, author));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        Waiter waiter = new Waiter(since, pageSize, author);
+        waiters.add(waiter);
+        ScheduledFuture<?> timeout = executor.schedule(
+                () -> waiter.future.complete(DiaryChangesResponse.empty(since)),
+                wait.toMillis(), TimeUnit.MILLISECONDS);
+        waiter.future.whenComplete((response, error) -> {
+            waiters.remove(waiter);
+            timeout.cancel(false);
+        });
+        // 등록 후 첫 조회를 하므로, 등록 직전에 커밋된 변경도 놓치지 않는다
+        waiter.signal();
+        return waiter.future;
+    }
+
+    /**
+     * 커밋된 변경의 작성자들을 기다리던 요청에 알린다.
+     */
+    @EventListener
+    public void onChanged(DiaryChangedEvent event) {
+        for (Waiter waiter : waiters) {
+            if (waiter.author == null || event.getAuthors().contains(waiter.author)) {
+                waiter.signal();
+            }
+        }
+    }
+
+    private void requireAuthorIfSharded(String author) {
+        if (diaryShardTemplate.isEnabled() && author == null) {
+            throw new IllegalArgumentException("샤딩을 쓰면 author 를 지정해야 합니다");
+        }
+    }
+
+    private int resolve(Long since, Integer limit) {
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("since 는 0 이상이어야 합니다: " + since);
+        }
+        return config.resolveLimit(limit);
+    }
+
+    private DiaryChangesResponse load(Long since, int pageSize, String author) {
+        return author == null
+                ? loadShard(since, pageSize, null)
+                : diaryShardTemplate.on(diaryShardTemplate.shardOf(author), () -> loadShard(since, pageSize, author));
+    }
+
+    private DiaryChangesResponse loadShard(Long since, int pageSize, String author) {
+        // 커밋 알림 직후에 읽으므로 복제 지연이 없는 주 DB 에서 읽는다
+        return DataSourceRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            if (since == null) {
+                return DiaryChangesResponse.empty(diaryChangeRepository.lastSeq());
+            }
+            long prunedSeq = diaryChangeRepository.prunedSeq();
+            if (since < prunedSeq) {
+                throw new DiaryChangeFeedExpiredException(since, prunedSeq);
+            }
+
+            PageRequest limit = PageRequest.of(0, pageSize + 1);
+            List<DiaryChange> changes = author == null
+                    ? diaryChangeRepository.findAfter(since, limit)
+                    : diaryChangeRepository.findByAuthorAfter(author, since, limit);
+            boolean hasMore = changes.size() > pageSize;
+            if (hasMore) {
+                changes = changes.subList(0, pageSize);
+            }
+            if (changes.isEmpty()) {
+                return DiaryChangesResponse.empty(since);
+            }
+
+            // 삭제가 아닌 항목의 현재 내용을 한 번의 IN 조회로 붙인다 (이후 삭제된 일기는 조회되지 않는다)
+            Set<Long> liveIds = changes.stream()
+                    .filter(change -> change.getType() != DiaryChange.Type.DELETED)
+                    .map(DiaryChange::getDiaryId)
+                    .collect(Collectors.toSet());
+            Map<Long, DiaryResponse> diaries = diaryRepository.findAllById(liveIds).stream()
+                    .collect(Collectors.toMap(Diary::getId, DiaryResponse::from));
+            List<DiaryChangeResponse> responses = changes.stream()
+                    .map(change -> DiaryChangeResponse.of(change, change.getType() == DiaryChange.Type.DELETED
+                            ? null : diaries.get(change.getDiaryId())))
+                    .collect(Collectors.toList());
+            return new DiaryChangesResponse(responses, changes.get(changes.size() - 1).getSeq(), hasMore);
+        }));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("diary.changes.waiters", waiters, Set::size)
+                .description("변경 피드를 롱 폴링으로 기다리는 요청 수")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        for (Waiter waiter : waiters) {
+            waiter.future.complete(DiaryChangesResponse.empty(waiter.since));
+        }
+    }
+
+    /**
+     * 롱 폴링 중인 요청. signal 이 여러 번 와도 조회는 하나씩만 실행하며,
+     * 조회 도중 새 signal 이 오면 끝난 뒤 한 번 더 조회해 알림을 놓치지 않는다.
+     */
+    private final class Waiter {
+
+        private final long since;
+        private final int pageSize;
+        private final String author;
+        private final CompletableFuture<DiaryChangesResponse> future = new CompletableFuture<>();
+        private final AtomicInteger signals = new AtomicInteger();
+
+        Waiter(long since, int pageSize, String author) {
+            this.since = since;
+            this.pageSize = pageSize;
+            this.author = author;
+        }
+
+        void signal() {
+            if (signals.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::check);
+                } catch (RejectedExecutionException e) {
+                    // 종료 중이면 destroy 가 빈 결과로 완료한다
+                }
+            }
+        }
+
+        private void check() {
+            int seen;
+            do {
+                seen = signals.get();
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    DiaryChangesResponse response = load(since, pageSize, author);
+                    if (!response.getChanges().isEmpty()) {
+                        future.complete(response);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+            } while (!signals.compareAndSet(seen, 0));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryShards;
+import com.example.diary.entity.DiaryChange;
+import com.example.diary.repository.DiaryChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 일기 변경을 변경 피드(diary_change)에 기록한다.
+ *
+ * 트랜잭션 안에서 record 로 모아 두었다가 커밋 직전에 seq 를 한 번에 예약하고 추가한다.
+ * seq 예약 행의 잠금이 커밋까지 유지되므로 seq 순서가 커밋 순서와 같고, 피드를 읽는 쪽은
+ * 이미 받은 seq 보다 작은 변경이 나중에 나타나는 일 없이 since 만으로 이어받을 수 있다.
+ * 잠금은 커밋 직전에만 잡으므로 변경을 기록하는 트랜잭션이 직렬화되는 구간은 INSERT 와 커밋뿐이다.
+ *
+ * 다만 diary_change_seq 는 샤드마다 한 행뿐이라, 이 구간은 샤드 안의 모든 쓰기(생성/수정/삭제/복구)가 한 줄로 지나가는
+ * 병목이다. 샤드의 쓰기 처리량은 대략 1 / (변경 INSERT + 커밋 시간) 을 넘지 못하고, 다른 트랜잭션이 잠금을 쥐고 있으면
+ * 커밋이 그만큼 기다린다 (잠금 대기 시간을 넘기면 실패한다). 쓰기가 이 한도에 가까워지면 샤드를 늘려 나눠야 한다.
+ * 잠금 없이 seq 를 미리 받아 두고 읽는 쪽이 진행 중인 트랜잭션보다 앞선 seq 까지만 내보내는 방식도 있지만,
+ * 여러 인스턴스에 걸친 진행 중 트랜잭션의 최소 seq 를 알 방법이 없어 지금은 쓰지 않는다.
+ *
+ * 롤백되면 추가한 행도 함께 사라지며, 커밋되면 DiaryChangedEvent 를 발행해 롱 폴링과 SSE 구독자에게 알린다.
+ * 샤딩을 쓰면 변경은 일기와 같은 샤드에 기록되고 seq 도 샤드마다 따로 증가한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiaryChangeLog {
+
+    private final DiaryChangeRepository diaryChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 현재 트랜잭션이 커밋될 때 변경 항목을 추가하도록 예약한다.
+     * @throws IllegalStateException 트랜잭션 밖에서 호출한 경우
+     */
+    public void record(DiaryChange.Type type, Long diaryId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("변경 피드는 트랜잭션 안에서만 기록할 수 있습니다");
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(type, diaryId);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<DiaryChange.Type> types = new ArrayList<>();
+        private final List<Long> diaryIds = new ArrayList<>();
+        private DiaryChangedEvent event;
+
+        void add(DiaryChange.Type type, Long diaryId) {
+            types.add(type);
+            diaryIds.add(diaryId);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            int count = diaryIds.size();
+            diaryChangeRepository.reserve(count);
+            long last = diaryChangeRepository.lastSeq();
+            long first = last - count + 1;
+
+            LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            for (int i = 0; i < count; i++) {
+                diaryChangeRepository.append(first + i, diaryIds.get(i), types.get(i).name(), changedAt);
+            }
+            Integer shard = DiaryShards.current();
+            event = new DiaryChangedEvent(shard == null ? 0 : shard, last,
+                    new LinkedHashSet<>(diaryChangeRepository.findAuthorsBetween(first, last)));
+        }
+
+        @Override
+        public void afterCommit() {
+            eventPublisher.publishEvent(event);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DiaryChangeLog.this);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.diary.service;
+
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 변경 피드에 기록된 변경이 커밋되었음을 알리는 프로세스 내 이벤트.
+ * DiaryChangeLog 가 커밋 후에 발행하며, 롤백된 변경은 발행하지 않는다.
+ */
+@Getter
+public class DiaryChangedEvent {
+
+    /** 변경이 기록된 샤드. seq 는 샤드마다 따로 증가한다 (샤딩을 쓰지 않으면 0) */
+    private final int shard;
+
+    /** 이번 커밋이 기록한 마지막 seq */
+    private final long lastSeq;
+
+    /** 이번 커밋에서 변경된 일기의 작성자들 */
+    private final Set<String> authors;
+
+    public DiaryChangedEvent(int shard, long lastSeq, Set<String> authors) {
+        this.shard = shard;
+        this.lastSeq = lastSeq;
+        this.authors = authors;
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryChangeResponse;
+import com.example.diary.dto.DiaryChangesResponse;
+import com.example.diary.exception.DiaryChangeFeedExpiredException;
+import com.example.diary.exception.DiarySubscriptionLimitException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 작성자별 실시간 변경 구독(SSE).
+ *
+ * 구독 연결은 SseEmitter(비동기 요청)이므로 유휴 구독자는 스레드를 점유하지 않는다.
+ * 커밋 후 DiaryChangedEvent 가 오면 전달 스레드 하나가 변경 피드를 seq 순서대로 읽어
+ * 해당 작성자 구독자의 버퍼에 넣고, 공용 전송 스레드들이 버퍼를 비우며 연결에 쓴다.
+ *
+ * 버퍼(buffer-size)가 가득 찬 구독자는 기다리지 않고 연결을 끊는다. 이벤트 id 는 변경 피드 seq 이므로
+ * 클라이언트가 Last-Event-ID 로 다시 연결하면 놓친 변경을 변경 피드에서 이어 보낸다.
+ *
+ * 샤딩을 쓰면 seq 가 샤드마다 따로 증가하므로 전달 위치(cursor)도 샤드별로 둔다.
+ * 한 작성자의 변경은 모두 한 샤드에 있으므로 구독자가 받는 이벤트 id 는 그 샤드의 seq 다.
+ */
+@Slf4j
+@Component
+public class DiaryEventBroadcaster implements MeterBinder, DisposableBean {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final DiaryChangeFeed diaryChangeFeed;
+    private final DiaryShardTemplate diaryShardTemplate;
+    private final DiaryProperties.Events config;
+    private final int pageSize;
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /** 샤드별로 구독자에게 전달을 마친 마지막 seq. 전달 스레드와 구독자 없는 커밋 알림만 갱신한다 (-1 이면 미정) */
+    private final ConcurrentMap<Integer, AtomicLong> cursors = new ConcurrentHashMap<>();
+    private final AtomicInteger signals = new AtomicInteger();
+
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+
+    public DiaryEventBroadcaster(DiaryChangeFeed diaryChangeFeed, DiaryShardTemplate diaryShardTemplate,
+                                 DiaryProperties diaryProperties) {
+        this.diaryChangeFeed = diaryChangeFeed;
+        this.diaryShardTemplate = diaryShardTemplate;
+        this.config = diaryProperties.getEvents();
+        this.pageSize = diaryProperties.getChanges().getMaxLimit();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(daemon("diary-event-dispatcher"));
+        this.senders = Executors.newFixedThreadPool(config.getSenderThreads(), daemon("diary-event-sender"));
+
+        long heartbeatMillis = config.getHeartbeatInterval().toMillis();
+        this.dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 작성자의 변경을 구독한다. lastEventId 가 주어지면 그 이후 변경부터 보낸다.
+     * 놓친 변경이 한 페이지(diary.changes.max-limit)보다 많거나 보관 기간이 지났으면
+     * reset 이벤트를 보내고 현재 시점부터 보낸다. 클라이언트는 reset 을 받으면 목록을 다시 받아야 한다.
+     * @throws DiarySubscriptionLimitException 구독자 수가 한도에 도달한 경우
+     */
+    public SseEmitter subscribe(String author, Long lastEventId) {
+        if (subscriberCount.incrementAndGet() > config.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new DiarySubscriptionLimitException(config.getMaxSubscribers());
+        }
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(author, emitter);
+        subscribers.compute(author, (key, set) -> {
+            Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // 등록 이후에 읽은 seq 이므로, 등록 전에 커밋된 변경은 모두 이 값 이하다
+        int shard = diaryShardTemplate.shardOf(author);
+        long head = headOf(shard);
+        cursorOf(shard).compareAndSet(-1, head);
+
+        try {
+            subscriber.start(lastEventId == null ? head : replay(subscriber, lastEventId, head));
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @EventListener
+    public void onChanged(DiaryChangedEvent event) {
+        if (subscriberCount.get() == 0) {
+            // 구독자가 없으면 읽지 않고 넘긴다. 이후 구독자는 구독 시점 이후의 변경만 받는다
+            cursorOf(event.getShard()).accumulateAndGet(event.getLastSeq(), Math::max);
+            return;
+        }
+        if (signals.getAndIncrement() == 0) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RejectedExecutionException e) {
+                // 종료 중
+            }
+        }
+    }
+
+    private long replay(Subscriber subscriber, long lastEventId, long head) throws IOException {
+        DiaryChangesResponse missed;
+        try {
+            missed = diaryChangeFeed.getChanges(lastEventId, pageSize, subscriber.author);
+        } catch (DiaryChangeFeedExpiredException | IllegalArgumentException e) {
+            subscriber.emitter.send(SseEmitter.event().name("reset").data(head));
+            return head;
+        }
+        if (missed.isHasMore()) {
+            subscriber.emitter.send(SseEmitter.event().name("reset").data(head));
+            return head;
+        }
+        for (DiaryChangeResponse change : missed.getChanges()) {
+            subscriber.emitter.send(toEvent(change));
+        }
+        return Math.max(missed.getNextSince(), lastEventId);
+    }
+
+    /**
+     * 새 커밋 알림마다 변경 피드를 샤드별 cursor 부터 읽어 구독자 버퍼에 넣는다.
+     * 처리 중 알림이 더 오면 끝난 뒤 한 번 더 읽는다.
+     */
+    private void dispatch() {
+        int seen;
+        do {
+            seen = signals.get();
+            try {
+                deliverPending();
+            } catch (RuntimeException e) {
+                log.warn("변경 이벤트 전달에 실패했습니다", e);
+            }
+        } while (!signals.compareAndSet(seen, 0));
+    }
+
+    private void deliverPending() {
+        cursors.forEach((shard, cursor) -> diaryShardTemplate.on(shard, () -> {
+            deliverPending(shard, cursor);
+            return null;
+        }));
+    }
+
+    private void deliverPending(int shard, AtomicLong cursor) {
+        long since = cursor.get();
+        if (since < 0) {
+            return;
+        }
+        DiaryChangesResponse page;
+        do {
+            try {
+                page = diaryChangeFeed.getShardChanges(since, pageSize);
+            } catch (DiaryChangeFeedExpiredException e) {
+                cursor.accumulateAndGet(headOf(shard), Math::max);
+                return;
+            }
+            for (DiaryChangeResponse change : page.getChanges()) {
+                Set<Subscriber> targets = subscribers.get(change.getAuthor());
+                if (targets != null) {
+                    targets.forEach(subscriber -> subscriber.offer(change));
+                }
+            }
+            since = page.getNextSince();
+            cursor.accumulateAndGet(since, Math::max);
+        } while (page.isHasMore());
+    }
+
+    private AtomicLong cursorOf(int shard) {
+        return cursors.computeIfAbsent(shard, key -> new AtomicLong(-1));
+    }
+
+    private long headOf(int shard) {
+        return diaryShardTemplate.on(shard, () -> diaryChangeFeed.getShardChanges(null, null)).getNextSince();
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.author, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriber.queue.clear();
+        subscriberCount.decrementAndGet();
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        remove(subscriber);
+        evicted.incrementAndGet();
+        subscriber.close();
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(DiaryChangeResponse change) {
+        return SseEmitter.event()
+                .id(String.valueOf(change.getSeq()))
+                .name(change.getType().name().toLowerCase(Locale.ROOT))
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("diary.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("실시간 변경 구독자 수")
+                .register(registry);
+        FunctionCounter.builder("diary.events.evicted", evicted, AtomicLong::get)
+                .description("버퍼가 가득 차 연결을 끊은 느린 구독자 수")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * 구독자 하나. 버퍼에 넣는 쪽은 여러 스레드일 수 있지만 연결에 쓰는 것은 한 번에 한 스레드뿐이다.
+     * start 전에는 버퍼에 쌓기만 하고, start 에 넘긴 seq 이하의 변경은 이미 보낸 것으로 보고 건너뛴다.
+     */
+    private final class Subscriber {
+
+        private final String author;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(config.getBufferSize());
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean started;
+        private volatile long startSeq;
+
+        Subscriber(String author, SseEmitter emitter) {
+            this.author = author;
+            this.emitter = emitter;
+        }
+
+        void start(long startSeq) {
+            this.startSeq = startSeq;
+            this.started = true;
+            scheduleDrain();
+        }
+
+        void offer(Object item) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                evict(this);
+                return;
+            }
+            if (started) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * 연결을 닫는다. 전송 중이면 그 쓰기가 끝난 뒤 전송 스레드가 닫으므로, 느린 연결 때문에
+         * 호출한 스레드(전달 스레드)가 막히지 않는다.
+         */
+        void close() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // 종료 중이면 destroy 가 닫는다
+            }
+        }
+
+        private void scheduleDrain() {
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed.get() && (item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                // 전송 중에 내보내졌으면 여기서 닫는다
+                close();
+            } else {
+                // 마지막 poll 과 draining 해제 사이에 들어온 항목이 있으면 다시 예약한다
+                scheduleDrain();
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            DiaryChangeResponse change = (DiaryChangeResponse) item;
+            if (change.getSeq() > startSeq) {
+                emitter.send(toEvent(change));
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.repository.DiaryChangeRepository;
+import com.example.diary.repository.DiaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 삭제(soft delete)된 지 보관 기간이 지난 일기를 영구 삭제하는 예약 작업.
+ *
+ * batchSize 건씩 별도 트랜잭션으로 지우므로 한 번에 큰 잠금이나 긴 트랜잭션을 만들지 않는다.
+ * 끝나면 0 건이 된 달력 집계 행도 정리한다. 보관 기간(diary.changes.retention)이 지난 변경 피드 항목도
+ * 같은 방식으로 지운다. 샤딩을 쓰면 샤드마다 차례로 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiaryPurgeJob {
+
+    private final DiaryRepository diaryRepository;
+    private final DiaryChangeRepository diaryChangeRepository;
+    private final DiaryProperties diaryProperties;
+    private final DiaryCalendarService diaryCalendarService;
+    private final TransactionTemplate transactionTemplate;
+    private final DiaryShardTemplate diaryShardTemplate;
+
+    @Scheduled(cron = "${diary.purge.cron:0 0 4 * * *}")
+    public void scheduledPurge() {
+        if (!diaryProperties.getPurge().isEnabled()) {
+            return;
+        }
+        int purged = purge();
+        log.info("삭제된 일기 {}건을 영구 삭제했습니다", purged);
+        int pruned = pruneChanges();
+        log.info("변경 피드 항목 {}건을 정리했습니다", pruned);
+    }
+
+    /**
+     * 보관 기간이 지난 삭제 일기를 영구 삭제한다.
+     * @return 영구 삭제된 행 수
+     */
+    public int purge() {
+        return purgeDeletedBefore(LocalDateTime.now().minus(diaryProperties.getPurge().getRetention()));
+    }
+
+    /**
+     * 기준 시각 이전에 삭제된 일기를 모두 영구 삭제한다.
+     * @return 영구 삭제된 행 수
+     */
+    public int purgeDeletedBefore(LocalDateTime deletedBefore) {
+        return sum(diaryShardTemplate.onEach(() -> purgeShard(deletedBefore)));
+    }
+
+    private int purgeShard(LocalDateTime deletedBefore) {
+        int batchSize = diaryProperties.getPurge().getBatchSize();
+        int total = 0;
+        int purged;
+        do {
+            purged = transactionTemplate.execute(
+                    status -> diaryRepository.purgeDeletedBefore(deletedBefore, batchSize));
+            total += purged;
+        } while (purged == batchSize);
+        diaryCalendarService.pruneEmpty();
+        return total;
+    }
+
+    /**
+     * 보관 기간이 지난 변경 피드 항목을 지운다.
+     * @return 삭제된 행 수
+     */
+    public int pruneChanges() {
+        return pruneChangesBefore(LocalDateTime.now().minus(diaryProperties.getChanges().getRetention()));
+    }
+
+    /**
+     * 기준 시각 이전의 변경 피드 항목을 seq 구간별로 나눠 지운다.
+     * 지운 구간은 같은 트랜잭션에서 pruned_seq 로 기록해, 그보다 작은 since 요청이 410 을 받게 한다.
+     * @return 삭제된 행 수
+     */
+    public int pruneChangesBefore(LocalDateTime changedBefore) {
+        return sum(diaryShardTemplate.onEach(() -> pruneShardChanges(changedBefore)));
+    }
+
+    private int pruneShardChanges(LocalDateTime changedBefore) {
+        Long upTo = diaryChangeRepository.findMaxSeqChangedBefore(changedBefore);
+        if (upTo == null) {
+            return 0;
+        }
+        int batchSize = diaryProperties.getPurge().getBatchSize();
+        long end = diaryChangeRepository.prunedSeq();
+        int total = 0;
+        while (end < upTo) {
+            long chunkEnd = Math.min(end + batchSize, upTo);
+            total += transactionTemplate.execute(status -> {
+                int deleted = diaryChangeRepository.deleteUpTo(chunkEnd);
+                diaryChangeRepository.markPruned(chunkEnd);
+                return deleted;
+            });
+            end = chunkEnd;
+        }
+        return total;
+    }
+
+    private static int sum(List<Integer> counts) {
+        return counts.stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.diary.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 제목과 내용을 대상으로 하는 프로세스 내 역색인(inverted index).
+ *
+ * 토큰별로 (일기 ID → 가중 출현 빈도) 포스팅을 유지하며, 제목 토큰은 내용 토큰보다 높은 가중치를 가진다.
+ * 점수는 질의 토큰마다 idf × (1 + log tf) 를 더한 값이다.
+ */
+@Component
+public class DiarySearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 일기를 색인한다. 이미 색인된 일기는 기존 토큰을 지우고 다시 색인한다.
+     */
+    public void index(Long id, String title, String content) {
+        Document document = new Document(weigh(title, TITLE_WEIGHT), weigh(content, CONTENT_WEIGHT));
+
+        lock.writeLock().lock();
+        try {
+            put(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * null 이 아닌 필드만 다시 색인하고 나머지 필드의 토큰은 유지한다.
+     * 본문을 읽지 않는 부분 수정(PATCH)에서 쓴다. 색인에 없는 일기는 무시한다.
+     */
+    public void indexFields(Long id, String title, String content) {
+        Map<String, Integer> titleWeights = title == null ? null : weigh(title, TITLE_WEIGHT);
+        Map<String, Integer> contentWeights = content == null ? null : weigh(content, CONTENT_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.get(id);
+            if (previous == null) {
+                return;
+            }
+            put(id, new Document(
+                    titleWeights != null ? titleWeights : previous.title,
+                    contentWeights != null ? contentWeights : previous.content));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 색인한다.
+     */
+    public void indexAfterCommit(Long id, String title, String content) {
+        TransactionCallbacks.afterCommit(() -> index(id, title, content));
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 주어진 필드만 다시 색인한다.
+     */
+    public void indexFieldsAfterCommit(Long id, String title, String content) {
+        TransactionCallbacks.afterCommit(() -> indexFields(id, title, content));
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 색인에서 제거한다.
+     */
+    public void removeAfterCommit(Long id) {
+        TransactionCallbacks.afterCommit(() -> remove(id));
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 질의에 일치하는 일기 ID 를 점수 내림차순(동점이면 최신 ID 우선)으로 반환한다.
+     */
+    public List<Long> search(String query) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(DiaryTokenizer.tokenize(query)));
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            for (String token : queryTokens) {
+                Map<Long, Integer> posting = postings.get(token);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) documentCount / posting.size());
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    double score = idf * (1.0 + Math.log(entry.getValue()));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private static Map<String, Integer> weigh(String text, int weight) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : DiaryTokenizer.tokenizeForIndex(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+        return weights;
+    }
+
+    private void put(Long id, Document document) {
+        removeInternal(id);
+        documents.put(id, document);
+        for (Map.Entry<String, Integer> entry : document.weights().entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), token -> new HashMap<>())
+                    .put(id, entry.getValue());
+        }
+    }
+
+    private void removeInternal(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.weights().keySet()) {
+            Map<Long, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * 색인된 일기 하나의 필드별 토큰 가중치. 필드 단위로 다시 색인할 수 있도록 나눠 보관한다.
+     */
+    private static final class Document {
+
+        private final Map<String, Integer> title;
+        private final Map<String, Integer> content;
+
+        Document(Map<String, Integer> title, Map<String, Integer> content) {
+            this.title = title;
+            this.content = content;
+        }
+
+        Map<String, Integer> weights() {
+            Map<String, Integer> weights = new HashMap<>(content);
+            title.forEach((token, weight) -> weights.merge(token, weight, Integer::sum));
+            return weights;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySearchResponse;
+import com.example.diary.entity.Diary;
+import com.example.diary.repository.DiaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DiarySearchService {
+
+    private final DiaryRepository diaryRepository;
+    private final DiarySearchIndex diarySearchIndex;
+    private final DiaryProperties diaryProperties;
+    private final EntityManager entityManager;
+    private final DiaryShardTemplate diaryShardTemplate;
+
+    /** 페이지를 읽을 때 색인에만 남은 ID 를 메우려고 더 읽어 오는 ID 수 */
+    private static final int STALE_MARGIN = 10;
+
+    /**
+     * 색인은 전체 일기를 담으므로, 샤딩을 쓰면 페이지에 든 ID 를 샤드별로 나눠 읽은 뒤 순위대로 합친다.
+     * 색인은 커밋 후에 갱신되어 방금 삭제된 일기가 남아 있을 수 있으므로, 요청한 페이지 범위만 조금 더 읽고
+     * DB 에 없는 ID 는 건너뛰어 다음 ID 로 페이지를 채운다. totalHits 는 색인 기준 건수(근사값)다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DiarySearchResponse search(String query, Integer page, Integer size) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("검색어는 필수입니다");
+        }
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("페이지 번호는 0 이상이어야 합니다: " + page);
+        }
+        int pageSize = diaryProperties.getPagination().resolveSize(size);
+
+        List<Long> rankedIds = diarySearchIndex.search(query);
+        int next = (int) Math.min((long) pageNumber * pageSize, rankedIds.size());
+        List<DiaryResponse> content = new ArrayList<>(pageSize);
+        while (content.size() < pageSize && next < rankedIds.size()) {
+            int to = Math.min(next + pageSize - content.size() + STALE_MARGIN, rankedIds.size());
+            List<Long> windowIds = rankedIds.subList(next, to);
+            Map<Long, Diary> diaries = diaryShardTemplate.readGrouped(windowIds, Function.identity(),
+                            diaryRepository::findAllById).stream()
+                    .collect(Collectors.toMap(Diary::getId, Function.identity()));
+            for (Long id : windowIds) {
+                next++;
+                Diary diary = diaries.get(id);
+                if (diary != null) {
+                    content.add(DiaryResponse.from(diary));
+                    if (content.size() == pageSize) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        return DiarySearchResponse.builder()
+                .content(content)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalHits(rankedIds.size())
+                .hasNext(next < rankedIds.size())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (diaryProperties.getSearch().isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * DB(샤딩을 쓰면 모든 샤드)의 전체 일기로 색인을 다시 만든다.
+     * @return 색인된 일기 수
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int rebuild() {
+        diarySearchIndex.clear();
+        int indexed = diaryShardTemplate.readEach(this::indexShard).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        log.info("검색 색인 재구성 완료: {}건", indexed);
+        return indexed;
+    }
+
+    private int indexShard() {
+        int indexed = 0;
+        try (Stream<Diary> diaries = diaryRepository.streamAll()) {
+            Iterator<Diary> iterator = diaries.iterator();
+            while (iterator.hasNext()) {
+                Diary diary = iterator.next();
+                diarySearchIndex.index(diary.getId(), diary.getTitle(), diary.getContent());
+                entityManager.detach(diary);
+                indexed++;
+            }
+        }
+        return indexed;
+    }
+}
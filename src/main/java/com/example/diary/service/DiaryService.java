@@ -1,76 +1,463 @@
 package com.example.diary.service;
 
+import com.example.diary.config.DiaryJsonWriters;
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.config.ShardKey;
+import com.example.diary.dto.CursorPageResponse;
+import com.example.diary.dto.DiaryBatchUpdateRequest;
 import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.dto.DiaryCursor;
 import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySummaryResponse;
+import com.example.diary.dto.DiaryVersion;
 import com.example.diary.dto.DiaryUpdateRequest;
 import com.example.diary.entity.Diary;
+import com.example.diary.entity.DiaryChange;
+import com.example.diary.exception.DiaryConflictException;
+import com.example.diary.exception.DiaryPreconditionFailedException;
 import com.example.diary.repository.DiaryRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class DiaryService {
 
+    /** 목록 쿼리와 같은 (createdAt, id) 내림차순. 샤드별 결과를 합칠 때 쓴다 */
+    private static final Comparator<DiarySummaryResponse> NEWEST_FIRST = Comparator
+            .comparing(DiarySummaryResponse::getCreatedAt)
+            .thenComparing(DiarySummaryResponse::getId)
+            .reversed();
+
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final DiaryRepository diaryRepository;
+    private final DiaryProperties diaryProperties;
+    private final DiaryCache diaryCache;
+    private final DiarySearchIndex diarySearchIndex;
+    private final DiaryCalendarService diaryCalendarService;
+    private final DiaryChangeLog diaryChangeLog;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final DiaryJsonWriters diaryJsonWriters;
+    private final TransactionTemplate transactionTemplate;
+    private final DiaryShardTemplate diaryShardTemplate;
 
     @Transactional
-    public DiaryResponse createDiary(DiaryCreateRequest request) {
-        Diary diary = Diary.builder()
-                .title(request.getTitle())
-                .content(request.getContent())
-                .author(request.getAuthor())
-                .build();
+    public DiaryResponse createDiary(@ShardKey DiaryCreateRequest request) {
+        Diary savedDiary = diaryRepository.save(toEntity(request, null));
+        diaryCalendarService.recordCreated(Collections.singletonList(savedDiary));
+        return afterCreate(savedDiary);
+    }
 
-        Diary savedDiary = diaryRepository.save(diary);
-        return DiaryResponse.from(savedDiary);
+    /**
+     * 여러 일기를 한 트랜잭션에서 생성한다. 샤딩을 쓰면 작성자의 샤드별로 한 트랜잭션씩이다.
+     * 시퀀스 기반 ID 와 hibernate.jdbc.batch_size 설정으로 INSERT 가 JDBC 배치로 묶인다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DiaryResponse> createDiaries(List<DiaryCreateRequest> requests) {
+        return diaryShardTemplate.writeGrouped(requests, DiaryCreateRequest::getAuthor, group -> saveAll(group.stream()
+                .map(request -> toEntity(request, null))
+                .collect(Collectors.toList())));
     }
 
-    public DiaryResponse getDiary(Long id) {
-        Diary diary = diaryRepository.findById(id)
+    /**
+     * reserveId 로 예약한 ID 로 여러 일기를 생성한다 (쓰기 지연 큐). 트랜잭션은 createDiaries 와 같다.
+     * @param reservedIds requests 와 같은 순서의 예약 ID
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DiaryResponse> createDiaries(List<DiaryCreateRequest> requests, List<Long> reservedIds) {
+        List<Integer> positions = IntStream.range(0, requests.size()).boxed().collect(Collectors.toList());
+        return diaryShardTemplate.writeGrouped(positions, reservedIds::get, group -> saveAll(group.stream()
+                .map(position -> toEntity(requests.get(position), reservedIds.get(position)))
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * 일기를 저장하기 전에 ID 를 예약한다. 작성자의 샤드에서 ID 생성기의 값 묶음(50 개)을 나눠 쓰므로
+     * 시퀀스 조회는 50 건에 한 번이다. 예약한 ID 는 createDiaries(requests, reservedIds) 로 저장한다.
+     */
+    @Transactional
+    public Long reserveId(@ShardKey DiaryCreateRequest request) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getMetamodel()
+                .entityPersister(Diary.class)
+                .getIdentifierGenerator();
+        return (Long) generator.generate(session, null);
+    }
+
+    private List<DiaryResponse> saveAll(List<Diary> diaries) {
+        List<Diary> saved = diaryRepository.saveAll(diaries);
+        diaryCalendarService.recordCreated(saved);
+        return saved.stream()
+                .map(this::afterCreate)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 캐시에 없으면 읽기 라우팅대로(복제본, 최근에 쓴 클라이언트는 주 DB) 읽어 캐시에 넣는다.
+     * 지연된 복제본의 이전 값이 캐시에 들어가더라도 DiaryCache 가 쓰기 후 복제 지연 시간이 지나 한 번 더 무효화한다.
+     */
+    public DiaryResponse getDiary(@ShardKey Long id) {
+        DiaryResponse response = diaryCache.get(id, key -> diaryRepository.findById(key)
+                .map(DiaryResponse::from)
+                .orElse(null));
+        if (response == null) {
+            throw new RuntimeException("일기를 찾을 수 없습니다. ID: " + id);
+        }
+        return response;
+    }
+
+    /**
+     * 조건부 요청 검증에 쓰는 버전과 수정일시를 반환한다.
+     * 캐시에 있으면 캐시 값을, 없으면 버전 컬럼만 조회하므로 본문(content)을 읽지 않는다.
+     */
+    public DiaryVersion getVersion(@ShardKey Long id) {
+        DiaryResponse cached = diaryCache.getIfPresent(id);
+        if (cached != null) {
+            return new DiaryVersion(cached.getVersion(), cached.getUpdatedAt());
+        }
+        return diaryRepository.findVersionById(id)
                 .orElseThrow(() -> new RuntimeException("일기를 찾을 수 없습니다. ID: " + id));
-        return DiaryResponse.from(diary);
     }
 
-    public List<DiaryResponse> getAllDiaries() {
-        return diaryRepository.findAll()
+    /**
+     * 전체 목록의 한 페이지. 샤딩을 쓰면 각 샤드에서 같은 커서 이후 pageSize + 1 건씩 읽어
+     * (createdAt, id) 순서로 합친 뒤 앞에서부터 자른다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CursorPageResponse<DiarySummaryResponse> getDiaries(String cursor, Integer size, Integer preview) {
+        int pageSize = diaryProperties.getPagination().resolveSize(size);
+        int previewLength = diaryProperties.getSummary().resolvePreviewLength(preview);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        DiaryCursor decoded = cursor == null ? null : DiaryCursor.decode(cursor);
+
+        List<DiarySummaryResponse> summaries = diaryShardTemplate.readEach(() -> decoded == null
+                        ? diaryRepository.findSummaryFirstPage(previewLength, limit)
+                        : diaryRepository.findSummaryPageAfter(
+                                decoded.getCreatedAt(), decoded.getId(), previewLength, limit))
                 .stream()
-                .map(DiaryResponse::from)
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST)
+                .limit(pageSize + 1)
                 .collect(Collectors.toList());
+        return toPage(summaries, pageSize);
     }
 
-    @Transactional
-    public DiaryResponse updateDiary(Long id, DiaryUpdateRequest request) {
-        Diary diary = diaryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("일기를 찾을 수 없습니다. ID: " + id));
+    /**
+     * 전체 일기를 NDJSON(한 줄에 JSON 하나)으로 출력한다. 샤딩을 쓰면 샤드 순서대로 이어서 출력한다.
+     * 행을 하나씩 읽어 쓰고 영속성 컨텍스트에서 분리하므로 건수와 무관하게 메모리 사용량이 일정하다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void exportDiaries(OutputStream out) throws IOException {
+        ObjectWriter writer = diaryJsonWriters.export();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
 
-        if (request.getTitle() != null) {
-            diary.updateTitle(request.getTitle());
+            AtomicInteger written = new AtomicInteger();
+            try {
+                diaryShardTemplate.readEach(() -> exportShard(writer, generator, written));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.flush();
         }
-        if (request.getContent() != null) {
-            diary.updateContent(request.getContent());
+    }
+
+    private Void exportShard(ObjectWriter writer, JsonGenerator generator, AtomicInteger written) {
+        try (Stream<Diary> diaries = diaryRepository.streamAll()) {
+            Iterator<Diary> iterator = diaries.iterator();
+            while (iterator.hasNext()) {
+                Diary diary = iterator.next();
+                writer.writeValue(generator, DiaryResponse.from(diary));
+                generator.writeRaw('\n');
+                entityManager.detach(diary);
+
+                // 첫 행은 바로 내보내 응답이 즉시 시작되게 하고, 이후에는 일정 간격으로 flush 한다
+                int count = written.incrementAndGet();
+                if (count == 1 || count % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        return DiaryResponse.from(diary);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DiaryResponse updateDiary(@ShardKey Long id, DiaryUpdateRequest request) {
+        return updateDiary(id, request, null);
+    }
+
+    /**
+     * 낙관적 잠금(@Version)으로 일기를 수정한다.
+     *
+     * expectedVersion(If-Match)이 주어지면 현재 버전과 다를 때 DiaryPreconditionFailedException 을 던진다.
+     * 주어지지 않은 경우 커밋 시점에 다른 수정과 충돌하면 새 트랜잭션에서 다시 읽어,
+     * 이번 요청이 바꾸려는 필드가 그대로일 때만(예: 상대는 내용만, 이쪽은 제목만 수정) 최대
+     * MAX_UPDATE_ATTEMPTS 번까지 재적용한다. 같은 필드가 바뀌었으면 DiaryConflictException 을 던진다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DiaryResponse updateDiary(@ShardKey Long id, DiaryUpdateRequest request, Long expectedVersion) {
+        EditBase base = new EditBase();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Diary diary = diaryRepository.findById(id)
+                            .orElseThrow(() -> new RuntimeException("일기를 찾을 수 없습니다. ID: " + id));
+                    if (!base.isCaptured()) {
+                        if (expectedVersion != null && !expectedVersion.equals(diary.getVersion())) {
+                            throw new DiaryPreconditionFailedException(id);
+                        }
+                        base.capture(diary);
+                    } else if (base.conflictsWith(diary, request)) {
+                        throw new DiaryConflictException(id);
+                    }
+
+                    applyUpdate(diary, request.getTitle(), request.getContent());
+                    diaryRepository.flush();
+                    return afterUpdate(diary);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null) {
+                    throw new DiaryPreconditionFailedException(id);
+                }
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw new DiaryConflictException(id);
+                }
+            }
+        }
     }
 
+    /**
+     * 주어진 필드(제목/내용)만 단일 UPDATE 로 수정한다. 엔티티와 본문을 먼저 읽지 않으며,
+     * 응답에는 본문 없이 수정 후의 제목, 버전, 수정일시 등을 담는다.
+     *
+     * expectedVersion(If-Match)이 주어지면 UPDATE 조건에 포함되며, 버전이 다르면
+     * DiaryPreconditionFailedException 을 던진다.
+     */
     @Transactional
-    public void deleteDiary(Long id) {
-        if (!diaryRepository.existsById(id)) {
+    public DiarySummaryResponse patchDiary(@ShardKey Long id, DiaryUpdateRequest request, Long expectedVersion) {
+        if (request.getTitle() == null && request.getContent() == null) {
+            throw new IllegalArgumentException("수정할 필드가 없습니다");
+        }
+        int updated = diaryRepository.patch(id, request.getTitle(), request.getContent(), now(), expectedVersion);
+        if (updated == 0) {
+            if (expectedVersion != null && diaryRepository.findVersionById(id).isPresent()) {
+                throw new DiaryPreconditionFailedException(id);
+            }
             throw new RuntimeException("일기를 찾을 수 없습니다. ID: " + id);
         }
-        diaryRepository.deleteById(id);
+
+        diaryCache.evict(id);
+        diarySearchIndex.indexFieldsAfterCommit(id, request.getTitle(), request.getContent());
+        diaryChangeLog.record(DiaryChange.Type.UPDATED, id);
+        return diaryRepository.findSummaryWithoutContentById(id)
+                .orElseThrow(() -> new RuntimeException("일기를 찾을 수 없습니다. ID: " + id));
     }
 
-    public List<DiaryResponse> getDiariesByAuthor(String author) {
-        return diaryRepository.findByAuthor(author)
-                .stream()
-                .map(DiaryResponse::from)
+    /**
+     * 여러 일기를 한 번의 조회(IN 절)로 읽어 수정한다. 하나라도 없으면 전체를 롤백한다.
+     * 샤딩을 쓰면 샤드별로 조회와 롤백이 나뉘므로, 다른 샤드의 수정은 이미 커밋되었을 수 있다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DiaryResponse> updateDiaries(List<DiaryBatchUpdateRequest.Item> items) {
+        return diaryShardTemplate.writeGrouped(items, DiaryBatchUpdateRequest.Item::getId, this::updateAll);
+    }
+
+    private List<DiaryResponse> updateAll(List<DiaryBatchUpdateRequest.Item> items) {
+        List<Long> ids = items.stream()
+                .map(DiaryBatchUpdateRequest.Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, Diary> diaries = diaryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Diary::getId, Function.identity()));
+
+        List<Diary> updated = new ArrayList<>(items.size());
+        for (DiaryBatchUpdateRequest.Item item : items) {
+            Diary diary = diaries.get(item.getId());
+            if (diary == null) {
+                throw new RuntimeException("일기를 찾을 수 없습니다. ID: " + item.getId());
+            }
+            applyUpdate(diary, item.getTitle(), item.getContent());
+            updated.add(diary);
+        }
+
+        // 응답에 증가된 버전과 수정일시가 담기도록 먼저 flush 한다
+        diaryRepository.flush();
+        return updated.stream()
+                .map(this::afterUpdate)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * 일기를 삭제 상태로 표시한다 (단일 UPDATE). 영구 삭제는 DiaryPurgeJob 이 한다.
+     */
+    @Transactional
+    public void deleteDiary(@ShardKey Long id) {
+        diaryCalendarService.recordDeleting(Collections.singletonList(id));
+        if (diaryRepository.softDeleteById(id, now()) == 0) {
+            throw new RuntimeException("일기를 찾을 수 없습니다. ID: " + id);
+        }
+        afterDelete(id);
+    }
+
+    /**
+     * 여러 일기를 단일 UPDATE ... WHERE id IN (...) 으로 삭제 상태로 표시한다. 없는 ID 는 무시한다.
+     * 샤딩을 쓰면 샤드별로 한 번씩 실행한다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void deleteDiaries(List<Long> ids) {
+        diaryShardTemplate.writeGrouped(ids, Function.identity(), this::deleteAll);
+    }
+
+    private List<Long> deleteAll(List<Long> ids) {
+        diaryCalendarService.recordDeleting(ids);
+        diaryRepository.softDeleteAllById(ids, now());
+        ids.forEach(this::afterDelete);
+        return ids;
+    }
+
+    /**
+     * 삭제 상태의 일기를 복구한다. 영구 삭제된 뒤에는 복구할 수 없다.
+     */
+    @Transactional
+    public DiaryResponse restoreDiary(@ShardKey Long id) {
+        if (diaryRepository.restoreById(id) == 0) {
+            throw new RuntimeException("복구할 일기를 찾을 수 없습니다. ID: " + id);
+        }
+        Diary diary = diaryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("일기를 찾을 수 없습니다. ID: " + id));
+        diaryCalendarService.recordRestored(diary);
+        return afterUpdate(diary, DiaryChange.Type.RESTORED);
+    }
+
+    public CursorPageResponse<DiarySummaryResponse> getDiariesByAuthor(@ShardKey String author, String cursor,
+                                                                                 Integer size, Integer preview) {
+        int pageSize = diaryProperties.getPagination().resolveSize(size);
+        int previewLength = diaryProperties.getSummary().resolvePreviewLength(preview);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<DiarySummaryResponse> summaries;
+        if (cursor == null) {
+            summaries = diaryRepository.findSummaryFirstPageByAuthor(author, previewLength, limit);
+        } else {
+            DiaryCursor decoded = DiaryCursor.decode(cursor);
+            summaries = diaryRepository.findSummaryPageByAuthorAfter(
+                    author, decoded.getCreatedAt(), decoded.getId(), previewLength, limit);
+        }
+        return toPage(summaries, pageSize);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private Diary toEntity(DiaryCreateRequest request, Long reservedId) {
+        return Diary.builder()
+                .id(reservedId)
+                .title(request.getTitle())
+                .content(request.getContent())
+                .author(request.getAuthor())
+                .build();
+    }
+
+    private void applyUpdate(Diary diary, String title, String content) {
+        if (title != null) {
+            diary.updateTitle(title);
+        }
+        if (content != null) {
+            diary.updateContent(content);
+        }
+    }
+
+    private DiaryResponse afterCreate(Diary diary) {
+        DiaryResponse response = DiaryResponse.from(diary);
+        diaryCache.putAfterCommit(response);
+        diarySearchIndex.indexAfterCommit(diary.getId(), diary.getTitle(), diary.getContent());
+        diaryChangeLog.record(DiaryChange.Type.CREATED, diary.getId());
+        return response;
+    }
+
+    private DiaryResponse afterUpdate(Diary diary) {
+        return afterUpdate(diary, DiaryChange.Type.UPDATED);
+    }
+
+    private DiaryResponse afterUpdate(Diary diary, DiaryChange.Type changeType) {
+        diaryCache.evict(diary.getId());
+        diarySearchIndex.indexAfterCommit(diary.getId(), diary.getTitle(), diary.getContent());
+        diaryChangeLog.record(changeType, diary.getId());
+        return DiaryResponse.from(diary);
+    }
+
+    private void afterDelete(Long id) {
+        diaryCache.evict(id);
+        diarySearchIndex.removeAfterCommit(id);
+        diaryChangeLog.record(DiaryChange.Type.DELETED, id);
+    }
+
+    private CursorPageResponse<DiarySummaryResponse> toPage(List<DiarySummaryResponse> summaries, int pageSize) {
+        return CursorPageResponse.of(summaries, pageSize,
+                summary -> new DiaryCursor(summary.getCreatedAt(), summary.getId()));
+    }
+
+    /**
+     * 첫 시도에서 읽은, 이번 요청이 수정하려는 필드의 원래 값.
+     * 재시도 시 현재 값과 비교해 같은 필드를 다른 요청이 바꿨는지 판단한다.
+     */
+    private static final class EditBase {
+
+        private boolean captured;
+        private String title;
+        private String content;
+
+        boolean isCaptured() {
+            return captured;
+        }
+
+        void capture(Diary diary) {
+            this.title = diary.getTitle();
+            this.content = diary.getContent();
+            this.captured = true;
+        }
+
+        boolean conflictsWith(Diary current, DiaryUpdateRequest request) {
+            return (request.getTitle() != null && !Objects.equals(title, current.getTitle()))
+                    || (request.getContent() != null && !Objects.equals(content, current.getContent()));
+        }
+    }
 }
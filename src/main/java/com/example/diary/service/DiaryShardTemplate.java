@@ -0,0 +1,134 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.config.DiaryShards;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 샤드를 지정해 작업을 실행한다. 전체 목록 같은 scatter-gather 조회와, 여러 작성자에 걸친 일괄 처리를
+ * 샤드별로 나누는 데 쓴다.
+ *
+ * 샤딩(diary.shards.enabled)이 꺼져 있으면 샤드는 0 번 하나이며 샤드를 지정하지 않고 그대로 실행한다.
+ * 켜져 있으면 샤드마다 별도 트랜잭션(REQUIRES_NEW)이므로, 여러 샤드에 걸친 작업은 샤드 단위로만 원자적이다.
+ */
+@Component
+public class DiaryShardTemplate {
+
+    private final DiaryProperties.Shards config;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public DiaryShardTemplate(DiaryProperties diaryProperties, PlatformTransactionManager transactionManager) {
+        this.config = diaryProperties.getShards();
+        // 샤드마다 커넥션이 다르므로 바깥 트랜잭션에 참여하지 않는다
+        int propagation = config.isEnabled()
+                ? TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                : TransactionDefinition.PROPAGATION_REQUIRED;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(propagation);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(propagation);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 작성자(String) 또는 일기 ID(Number)의 샤드. 샤딩이 꺼져 있으면 0.
+     */
+    public int shardOf(Object key) {
+        return isEnabled() ? DiaryShards.shardOfKey(key, config.count()) : 0;
+    }
+
+    /**
+     * 지정한 샤드에서 action 을 실행한다. action 안에서 시작하는 트랜잭션도 그 샤드를 쓴다.
+     */
+    public <T> T on(int shard, Supplier<T> action) {
+        return isEnabled() ? DiaryShards.on(shard, action) : action.get();
+    }
+
+    /**
+     * 모든 샤드에서 차례로 action 을 실행하고 결과를 샤드 순서대로 반환한다. 트랜잭션은 action 이 정한다.
+     */
+    public <T> List<T> onEach(Supplier<T> action) {
+        List<T> results = new ArrayList<>(config.count());
+        for (int shard = 0; shard < config.count(); shard++) {
+            results.add(on(shard, action));
+        }
+        return results;
+    }
+
+    /**
+     * 모든 샤드에서 읽기 전용 트랜잭션으로 action 을 실행한다.
+     */
+    public <T> List<T> readEach(Supplier<T> action) {
+        return onEach(() -> readOnlyTransaction.execute(status -> action.get()));
+    }
+
+    /**
+     * 모든 샤드에서 쓰기 트랜잭션으로 action 을 실행한다.
+     */
+    public <T> List<T> writeEach(Supplier<T> action) {
+        return onEach(() -> writeTransaction.execute(status -> action.get()));
+    }
+
+    /**
+     * items 를 샤드별로 나눠 각 샤드의 읽기 전용 트랜잭션에서 action 을 실행하고, 결과를 샤드 순서대로 이어 붙인다.
+     * @param shardKey 항목의 작성자 또는 일기 ID
+     */
+    public <T, R> List<R> readGrouped(Collection<T> items, Function<T, ?> shardKey,
+                                      Function<List<T>, List<R>> action) {
+        if (!isEnabled()) {
+            return readOnlyTransaction.execute(status -> action.apply(new ArrayList<>(items)));
+        }
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(shardKey.apply(item)), key -> new ArrayList<>()).add(item);
+        }
+        List<R> results = new ArrayList<>();
+        groups.forEach((shard, group) -> results.addAll(
+                DiaryShards.on(shard, () -> readOnlyTransaction.execute(status -> action.apply(group)))));
+        return results;
+    }
+
+    /**
+     * items 를 샤드별로 나눠 각 샤드의 쓰기 트랜잭션에서 action 을 실행한다.
+     * action 은 받은 항목 순서대로 같은 개수의 결과를 돌려줘야 하며, 반환 목록은 items 의 순서를 따른다.
+     * @param shardKey 항목의 작성자 또는 일기 ID
+     */
+    public <T, R> List<R> writeGrouped(List<T> items, Function<T, ?> shardKey,
+                                       Function<List<T>, List<R>> action) {
+        if (!isEnabled()) {
+            return writeTransaction.execute(status -> action.apply(items));
+        }
+        Map<Integer, List<Integer>> positions = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            positions.computeIfAbsent(shardOf(shardKey.apply(items.get(i))), key -> new ArrayList<>()).add(i);
+        }
+        List<R> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        positions.forEach((shard, indexes) -> {
+            List<T> group = new ArrayList<>(indexes.size());
+            indexes.forEach(index -> group.add(items.get(index)));
+            List<R> groupResults = DiaryShards.on(shard,
+                    () -> writeTransaction.execute(status -> action.apply(group)));
+            for (int i = 0; i < indexes.size(); i++) {
+                results.set(indexes.get(i), groupResults.get(i));
+            }
+        });
+        return results;
+    }
+}
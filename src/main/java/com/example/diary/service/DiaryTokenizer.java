@@ -0,0 +1,85 @@
+package com.example.diary.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색 색인용 토크나이저.
+ *
+ * 문자/숫자가 아닌 문자를 기준으로 단어를 나눈 뒤, 한글·한자·가나가 포함된 단어는
+ * 형태소 분석 없이도 부분 일치가 되도록 글자 2-gram 으로 쪼개고 그 외 단어는 그대로 쓴다.
+ * 예) "오늘의 일기" → [오늘, 늘의, 일기], "Spring Boot" → [spring, boot]
+ *
+ * 색인할 때(tokenizeForIndex)는 한 글자 질의도 일치하도록 2-gram 과 함께 글자 1-gram 도 넣는다.
+ * 질의는 tokenize 로 나누므로 두 글자 이상의 질의는 2-gram 으로만 찾는다.
+ */
+public final class DiaryTokenizer {
+
+    private DiaryTokenizer() {
+    }
+
+    /**
+     * 질의를 토큰으로 나눈다.
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 색인할 텍스트를 토큰으로 나눈다. 한글·한자·가나 단어는 2-gram 에 더해 글자 1-gram 도 포함한다.
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addWordTokens(normalized.substring(start, i), withUnigrams, tokens);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addWordTokens(String word, boolean withUnigrams, List<String> tokens) {
+        if (!containsCjk(word) || word.length() == 1) {
+            tokens.add(word);
+            return;
+        }
+        for (int i = 0; i + 2 <= word.length(); i++) {
+            tokens.add(word.substring(i, i + 2));
+        }
+        if (withUnigrams) {
+            for (int i = 0; i < word.length(); i++) {
+                tokens.add(word.substring(i, i + 1));
+            }
+        }
+    }
+
+    private static boolean containsCjk(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            Character.UnicodeScript script = Character.UnicodeScript.of(word.charAt(i));
+            if (script == Character.UnicodeScript.HANGUL
+                    || script == Character.UnicodeScript.HAN
+                    || script == Character.UnicodeScript.HIRAGANA
+                    || script == Character.UnicodeScript.KATAKANA) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiaryWriteStatusResponse;
+import com.example.diary.exception.DiaryQueueFullException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 일기 생성의 쓰기 지연(write-behind) 큐.
+ *
+ * 요청 스레드는 일기 ID 를 예약(DiaryService.reserveId)해 크기가 제한된 큐에 넣고 바로 반환하며, 전용 쓰기 스레드 하나가 큐의 요청을
+ * batchSize 건이 모이거나 첫 요청 후 maxDelay 가 지나면 샤드별로 한 트랜잭션(DiaryService.createDiaries)씩 저장한다.
+ * 배치 저장이 실패하면 배치를 반으로 나눠 다시 저장하므로, 실패한 요청만 FAILED 가 되고 나머지는 저장된다.
+ * 큐가 가득 차면 DiaryQueueFullException 으로 거절하고, 종료 시에는 새 요청을 거절한 뒤 남은 요청을 모두 저장한다.
+ *
+ * diary.write-behind.enabled 가 false 이면 쓰기 스레드를 시작하지 않는다.
+ */
+@Slf4j
+@Component
+public class DiaryWriteBehindQueue implements SmartLifecycle, MeterBinder {
+
+    private static final String WRITER_THREAD_NAME = "diary-write-behind";
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS);
+
+    /** 웹 서버가 요청 수신을 멈춘 뒤에 멈추도록 웹 서버보다 낮은 단계에서 동작한다 */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final DiaryService diaryService;
+    private final DiaryShardTemplate diaryShardTemplate;
+    private final DiaryProperties.WriteBehind config;
+    private final BlockingQueue<PendingDiary> queue;
+    private final Cache<String, DiaryWriteStatusResponse> statuses;
+
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread writer;
+
+    public DiaryWriteBehindQueue(DiaryService diaryService, DiaryShardTemplate diaryShardTemplate,
+                                 DiaryProperties diaryProperties) {
+        this.diaryService = diaryService;
+        this.diaryShardTemplate = diaryShardTemplate;
+        this.config = diaryProperties.getWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(config.getStatusTimeToLive())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 일기 ID 를 예약하고 생성 요청을 큐에 넣은 뒤 PENDING 상태(예약한 diaryId 포함)를 반환한다.
+     * ID 예약은 ID 생성기의 값 묶음에서 나눠 주므로 대부분 DB 를 거치지 않는다.
+     * @throws DiaryQueueFullException 큐가 가득 찼거나 종료 중인 경우
+     */
+    public DiaryWriteStatusResponse submit(DiaryCreateRequest request) {
+        if (stopping) {
+            throw new DiaryQueueFullException("종료 중이라 일기 생성 요청을 받을 수 없습니다");
+        }
+        Long diaryId = diaryService.reserveId(request);
+        DiaryWriteStatusResponse pending = DiaryWriteStatusResponse.pending(UUID.randomUUID().toString(), diaryId);
+        statuses.put(pending.getTicket(), pending);
+        if (!queue.offer(new PendingDiary(pending.getTicket(), diaryId, request))) {
+            statuses.invalidate(pending.getTicket());
+            throw new DiaryQueueFullException("일기 생성 대기열이 가득 찼습니다");
+        }
+        return pending;
+    }
+
+    /**
+     * 접수된 요청의 상태를 반환한다. 모르는(또는 보관 기간이 지난) ticket 이면 null.
+     */
+    public DiaryWriteStatusResponse getStatus(String ticket) {
+        return statuses.getIfPresent(ticket);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled() || running) {
+            return;
+        }
+        stopping = false;
+        running = true;
+        writer = new Thread(this::runWriter, WRITER_THREAD_NAME);
+        writer.start();
+    }
+
+    /**
+     * 새 요청을 거절하고, 쓰기 스레드가 남은 요청을 모두 저장할 때까지 최대 shutdownTimeout 동안 기다린다.
+     */
+    @Override
+    public void stop() {
+        stopping = true;
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(config.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive() || !queue.isEmpty()) {
+            log.warn("종료 대기 시간 안에 저장하지 못한 일기 생성 요청이 {}건 남았습니다", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("diary.write_behind.queue.size", queue, BlockingQueue::size)
+                .description("저장을 기다리는 일기 생성 요청 수")
+                .register(registry);
+    }
+
+    private void runWriter() {
+        int batchSize = config.getBatchSize();
+        long maxDelayNanos = config.getMaxDelay().toNanos();
+        List<PendingDiary> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingDiary first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 요청 이후 maxDelay 동안 batchSize 건까지 모은다. 종료 중이면 기다리지 않는다.
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingDiary next = queue.poll(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                write(batch);
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 샤드별로 나눠 저장한다. 샤드마다 트랜잭션이 따로라서, 여러 샤드를 한 번에 저장하다 실패하면
+     * 이미 커밋된 샤드의 요청까지 다시 저장하게 되기 때문이다.
+     */
+    private void write(List<PendingDiary> batch) {
+        Map<Integer, List<PendingDiary>> groups = new TreeMap<>();
+        for (PendingDiary pending : batch) {
+            groups.computeIfAbsent(diaryShardTemplate.shardOf(pending.getRequest().getAuthor()),
+                    shard -> new ArrayList<>()).add(pending);
+        }
+        groups.values().forEach(this::writeGroup);
+    }
+
+    /**
+     * 한 샤드의 요청을 한 트랜잭션으로 저장한다. 실패하면 반씩 나눠 다시 저장해 실패한 요청만 FAILED 로 남긴다.
+     */
+    private void writeGroup(List<PendingDiary> group) {
+        List<DiaryCreateRequest> requests = group.stream()
+                .map(PendingDiary::getRequest)
+                .collect(Collectors.toList());
+        List<Long> diaryIds = group.stream()
+                .map(PendingDiary::getDiaryId)
+                .collect(Collectors.toList());
+        try {
+            List<DiaryResponse> created = diaryService.createDiaries(requests, diaryIds);
+            for (int i = 0; i < group.size(); i++) {
+                String ticket = group.get(i).getTicket();
+                statuses.put(ticket, DiaryWriteStatusResponse.created(ticket, created.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                String ticket = group.get(0).getTicket();
+                log.error("일기 생성 요청 {} 저장에 실패했습니다", ticket, e);
+                statuses.put(ticket, DiaryWriteStatusResponse.failed(ticket));
+                return;
+            }
+            log.warn("일기 {}건 일괄 저장에 실패해 나눠서 다시 저장합니다: {}", group.size(), e.toString());
+            int half = group.size() / 2;
+            writeGroup(group.subList(0, half));
+            writeGroup(group.subList(half, group.size()));
+        }
+    }
+
+    private static final class PendingDiary {
+
+        private final String ticket;
+        private final Long diaryId;
+        private final DiaryCreateRequest request;
+
+        PendingDiary(String ticket, Long diaryId, DiaryCreateRequest request) {
+            this.ticket = ticket;
+            this.diaryId = diaryId;
+            this.request = request;
+        }
+
+        String getTicket() {
+            return ticket;
+        }
+
+        Long getDiaryId() {
+            return diaryId;
+        }
+
+        DiaryCreateRequest getRequest() {
+            return request;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- 일기 테이블. 엔티티(Diary)와 컬럼 타입이 맞아야 ddl-auto: validate 를 통과한다.
+CREATE SEQUENCE diary_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE diary (
+    id         BIGINT                 NOT NULL,
+    title      VARCHAR(100)           NOT NULL,
+    content    CHARACTER VARYING      NOT NULL,
+    author     VARCHAR(50)            NOT NULL,
+    created_at TIMESTAMP(6)           NOT NULL,
+    updated_at TIMESTAMP(6)           NOT NULL,
+    version    BIGINT       DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_diary PRIMARY KEY (id)
+);
+
+-- 작성자별 목록: WHERE author = ? ORDER BY created_at DESC, id DESC (+ keyset 조건)
+CREATE INDEX idx_diary_author_created_at ON diary (author, created_at DESC, id);
+
+-- 전체 목록: ORDER BY created_at DESC, id DESC (+ keyset 조건)
+CREATE INDEX idx_diary_created_at ON diary (created_at DESC, id);
@@ -0,0 +1,2 @@
+-- soft delete 표시 컬럼. NULL 허용 컬럼 추가이므로 기존 행을 다시 쓰지 않는다.
+ALTER TABLE diary ADD COLUMN deleted_at TIMESTAMP(6);
@@ -0,0 +1,2 @@
+-- 영구 삭제 작업(DiaryPurgeJob)이 보관 기간이 지난 행만 찾도록 한다.
+CREATE INDEX idx_diary_deleted_at ON diary (deleted_at);
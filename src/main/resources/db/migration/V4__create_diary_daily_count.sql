@@ -0,0 +1,14 @@
+-- 작성자별 일자별 일기 수. 달력 조회가 일기 건수가 아니라 일수에 비례하도록 DiaryService 가 쓰기 시 갱신한다.
+CREATE TABLE diary_daily_count (
+    author      VARCHAR(50) NOT NULL,
+    entry_date  DATE        NOT NULL,
+    entry_count INT         NOT NULL,
+    CONSTRAINT pk_diary_daily_count PRIMARY KEY (author, entry_date)
+);
+
+-- 기존 일기로 초기값을 채운다
+INSERT INTO diary_daily_count (author, entry_date, entry_count)
+SELECT author, CAST(created_at AS DATE), COUNT(*)
+FROM diary
+WHERE deleted_at IS NULL
+GROUP BY author, CAST(created_at AS DATE);
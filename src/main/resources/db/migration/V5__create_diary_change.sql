@@ -0,0 +1,26 @@
+-- 변경 피드. 일기 생성/수정/삭제/복구마다 한 행씩 추가되며, 클라이언트는 seq 이후의 변경만 받아 동기화한다.
+CREATE TABLE diary_change (
+    seq         BIGINT       NOT NULL,
+    diary_id    BIGINT       NOT NULL,
+    author      VARCHAR(50)  NOT NULL,
+    change_type VARCHAR(16)  NOT NULL,
+    changed_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_diary_change PRIMARY KEY (seq)
+);
+
+-- 작성자별 피드: WHERE author = ? AND seq > ? ORDER BY seq
+CREATE INDEX idx_diary_change_author_seq ON diary_change (author, seq);
+
+-- 보관 기간 정리: WHERE changed_at < ?
+CREATE INDEX idx_diary_change_changed_at ON diary_change (changed_at);
+
+-- seq 발급용 단일 행. 커밋 직전에 이 행을 갱신(행 잠금)하고 커밋하므로 seq 순서가 커밋 순서와 같다.
+-- pruned_seq 는 보관 기간이 지나 지워진 마지막 seq 이며, 그보다 오래된 since 로는 이어받을 수 없다.
+CREATE TABLE diary_change_seq (
+    id         INT    NOT NULL,
+    last_seq   BIGINT NOT NULL,
+    pruned_seq BIGINT NOT NULL,
+    CONSTRAINT pk_diary_change_seq PRIMARY KEY (id)
+);
+
+INSERT INTO diary_change_seq (id, last_seq, pruned_seq) VALUES (1, 0, 0);
@@ -0,0 +1,5 @@
+-- 목록 미리보기용 본문 앞부분(평문). 긴 본문은 압축되어 저장되므로(DiaryContentConverter)
+-- 목록 쿼리는 본문 대신 이 컬럼을 읽는다. 길이는 Diary.PREVIEW_LENGTH 와 같아야 한다.
+-- 기존 행을 한꺼번에 다시 쓰지 않도록 NULL 허용으로 추가하고 채우지 않는다.
+-- 기존 행(압축 전 평문)은 목록 쿼리가 coalesce 로 본문에서 잘라 쓰고, 본문을 수정할 때 채워진다.
+ALTER TABLE diary ADD COLUMN content_preview VARCHAR(200);
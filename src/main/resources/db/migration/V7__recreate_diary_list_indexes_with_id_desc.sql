@@ -0,0 +1,10 @@
+-- 목록 쿼리는 ORDER BY created_at DESC, id DESC 이므로 id 도 내림차순으로 둬야 같은 created_at 안의 정렬과
+-- (created_at, id) 커서 조건까지 인덱스 순서대로 읽는다. V1 의 인덱스는 id 가 오름차순이었다.
+-- 새 인덱스를 먼저 만들고 기존 인덱스를 지워, 목록 쿼리가 인덱스 없이 실행되는 구간을 두지 않는다.
+CREATE INDEX idx_diary_author_created_at_id ON diary (author, created_at DESC, id DESC);
+
+CREATE INDEX idx_diary_created_at_id ON diary (created_at DESC, id DESC);
+
+DROP INDEX idx_diary_author_created_at;
+
+DROP INDEX idx_diary_created_at;
@@ -0,0 +1,87 @@
+package com.example.diary.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private ReadReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션만 복제본으로 가고, 복제본끼리는 차례로 사용한다")
+    void routesReadOnlyToReplicasInTurn() throws Exception {
+        // given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("r1", h2("routing_r1"));
+        replicas.put("r2", h2("routing_r2"));
+        routing = new ReadReplicaRoutingDataSource(h2("routing_primary"), replicas,
+                ReadReplicaRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofMinutes(1));
+
+        // when & then
+        assertThat(databaseOf(routing)).isEqualTo("ROUTING_PRIMARY");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(databaseOf(routing)).isEqualTo("ROUTING_R1");
+        assertThat(databaseOf(routing)).isEqualTo("ROUTING_R2");
+        assertThat(databaseOf(routing)).isEqualTo("ROUTING_R1");
+
+        assertThat(DataSourceRouting.onPrimary(() -> databaseOfUnchecked(routing))).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    @DisplayName("복제본에 연결할 수 없으면 제외하고 주 DB 에서 읽는다")
+    void fallsBackToPrimaryWhenReplicaIsDown() throws Exception {
+        // given
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/nowhere");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", broken);
+        routing = new ReadReplicaRoutingDataSource(h2("fallback_primary"), replicas,
+                ReadReplicaRoutingDataSource.Strategy.LEAST_LOADED, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // when
+        String database = databaseOf(routing);
+
+        // then
+        assertThat(database).isEqualTo("FALLBACK_PRIMARY");
+        assertThat(routing.getHealthyReplicas()).isEmpty();
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static String databaseOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog();
+        }
+    }
+
+    private static String databaseOfUnchecked(DataSource dataSource) {
+        try {
+            return databaseOf(dataSource);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.diary.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlowQuerySamplingFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    @DisplayName("느린 쿼리 로그만 비율에 따라 버리고 다른 로그는 판단하지 않는다")
+    void samplesOnlySlowQueryLog() {
+        // given
+        SlowQuerySamplingFilter filter = new SlowQuerySamplingFilter();
+        filter.setSampleRate(0);
+
+        // when & then
+        assertThat(filter.decide(event(SlowQuerySamplingFilter.SLOW_QUERY_LOGGER))).isEqualTo(FilterReply.DENY);
+        assertThat(filter.decide(event("com.example.diary"))).isEqualTo(FilterReply.NEUTRAL);
+
+        filter.setSampleRate(1);
+        assertThat(filter.decide(event(SlowQuerySamplingFilter.SLOW_QUERY_LOGGER))).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private LoggingEvent event(String loggerName) {
+        return new LoggingEvent(getClass().getName(), loggerContext.getLogger(loggerName), Level.INFO,
+                "slow query", null, null);
+    }
+}
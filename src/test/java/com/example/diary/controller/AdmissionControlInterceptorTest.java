@@ -0,0 +1,101 @@
+package com.example.diary.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "diary.rate-limit.enabled=true",
+        "diary.rate-limit.endpoints.list.capacity=2",
+        "diary.rate-limit.endpoints.list.refill-per-second=0.01",
+        "diary.concurrency-limit.enabled=true",
+        "diary.concurrency-limit.retry-after=500ms",
+        "diary.concurrency-limit.max-concurrent.search=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionControlInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("요청자별 한도를 넘으면 429 와 Retry-After 를 반환하고, 다른 요청자는 영향받지 않는다")
+    void rateLimitPerClient() throws Exception {
+        // given
+        String address = "10.0.0.1";
+
+        // when & then
+        mockMvc.perform(get("/api/diaries").with(remoteAddress(address)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/diaries").with(remoteAddress(address)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/diaries").with(remoteAddress(address)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+
+        mockMvc.perform(get("/api/diaries").with(remoteAddress("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("X-Client-Id 헤더를 바꿔도 같은 요청자의 버킷을 쓴다")
+    void clientIdHeaderDoesNotResetBucket() throws Exception {
+        // given
+        String address = "10.0.0.3";
+        mockMvc.perform(get("/api/diaries").with(remoteAddress(address)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/diaries").with(remoteAddress(address)))
+                .andExpect(status().isOk());
+
+        // when & then
+        mockMvc.perform(get("/api/diaries").with(remoteAddress(address))
+                        .header(ClientIds.CLIENT_ID_HEADER, "rotated-client"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("다른 요청자가 작성자의 한도를 소진해도 그 작성자의 요청은 제한되지 않는다")
+    void authorBudgetIsPerClient() throws Exception {
+        // given
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/diaries/author/{author}", "제한작성자").with(remoteAddress("10.0.0.4")));
+        }
+
+        // when & then
+        mockMvc.perform(get("/api/diaries/author/{author}", "제한작성자").with(remoteAddress("10.0.0.5")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("동시 실행 한도를 넘으면 대기하지 않고 503 과 Retry-After(초 단위 올림)를 반환한다")
+    void concurrencyLimitSheds() throws Exception {
+        mockMvc.perform(get("/api/diaries/search").param("q", "일기"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    @DisplayName("제한이 설정되지 않은 엔드포인트는 그대로 처리한다")
+    void unlimitedEndpoint() throws Exception {
+        mockMvc.perform(get("/api/diaries/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.diary.controller;
 
+import com.example.diary.dto.DiaryBatchCreateRequest;
 import com.example.diary.dto.DiaryCreateRequest;
 import com.example.diary.dto.DiaryResponse;
 import com.example.diary.dto.DiaryUpdateRequest;
@@ -10,18 +11,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureTestMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
-@AutoConfigureTestMvc
+@AutoConfigureMockMvc
 @Transactional
 @ActiveProfiles("test")
 class DiaryControllerTest {
@@ -61,6 +68,43 @@ class DiaryControllerTest {
                 .andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    @DisplayName("일기 일괄 생성 API 테스트")
+    void createDiaries() throws Exception {
+        // given
+        DiaryBatchCreateRequest request = DiaryBatchCreateRequest.builder()
+                .diaries(Arrays.asList(
+                        DiaryCreateRequest.builder().title("일기1").content("내용1").author("작성자").build(),
+                        DiaryCreateRequest.builder().title("일기2").content("내용2").author("작성자").build()))
+                .build();
+
+        // when & then
+        mockMvc.perform(post("/api/diaries/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[1].title").value("일기2"));
+    }
+
+    @Test
+    @DisplayName("일기 일괄 생성 시 항목 유효성 검증 테스트")
+    void createDiariesValidation() throws Exception {
+        // given
+        DiaryBatchCreateRequest request = DiaryBatchCreateRequest.builder()
+                .diaries(Arrays.asList(
+                        DiaryCreateRequest.builder().title("일기1").content("내용1").author("작성자").build(),
+                        DiaryCreateRequest.builder().title("").content("내용2").author("작성자").build()))
+                .build();
+
+        // when & then
+        mockMvc.perform(post("/api/diaries/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("일기 조회 API 테스트")
     void getDiary() throws Exception {
@@ -81,6 +125,55 @@ class DiaryControllerTest {
                 .andExpect(jsonPath("$.author").value("조회할 작성자"));
     }
 
+    @Test
+    @DisplayName("변경되지 않은 일기 조건부 조회 시 304 응답 테스트")
+    void getDiaryNotModified() throws Exception {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("조회할 일기")
+                .content("조회할 내용")
+                .author("조회할 작성자")
+                .build());
+        String etag = mockMvc.perform(get("/api/diaries/{id}", savedDiary.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v" + savedDiary.getVersion() + "\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when & then
+        mockMvc.perform(get("/api/diaries/{id}", savedDiary.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("변경된 목록 조건부 조회 시 새 본문 응답 테스트")
+    void getDiariesConditional() throws Exception {
+        // given
+        diaryRepository.save(Diary.builder()
+                .title("일기1")
+                .content("내용1")
+                .author("작성자")
+                .build());
+        String etag = mockMvc.perform(get("/api/diaries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when & then
+        mockMvc.perform(get("/api/diaries").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        diaryRepository.save(Diary.builder()
+                .title("일기2")
+                .content("내용2")
+                .author("작성자")
+                .build());
+        mockMvc.perform(get("/api/diaries").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
     @Test
     @DisplayName("존재하지 않는 일기 조회 API 테스트")
     void getDiaryNotFound() throws Exception {
@@ -111,8 +204,46 @@ class DiaryControllerTest {
         // when & then
         mockMvc.perform(get("/api/diaries"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].content").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("커서 기반 일기 목록 페이지 조회 API 테스트")
+    void getDiariesWithCursor() throws Exception {
+        // given
+        for (int i = 1; i <= 3; i++) {
+            diaryRepository.save(Diary.builder()
+                    .title("일기" + i)
+                    .content("내용" + i)
+                    .author("작성자")
+                    .build());
+        }
+
+        // when
+        String firstPage = mockMvc.perform(get("/api/diaries").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        // then
+        mockMvc.perform(get("/api/diaries").param("size", "2").param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 일기 목록 조회 API 테스트")
+    void getDiariesWithInvalidCursor() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/diaries").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -141,6 +272,85 @@ class DiaryControllerTest {
                 .andExpect(jsonPath("$.author").value("원래 작성자"));
     }
 
+    @Test
+    @DisplayName("If-Match 버전이 일치하면 수정하고 새 ETag 를 반환한다")
+    void updateDiaryWithIfMatch() throws Exception {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+        DiaryUpdateRequest request = DiaryUpdateRequest.builder()
+                .title("수정된 제목")
+                .build();
+
+        // when & then
+        mockMvc.perform(put("/api/diaries/{id}", savedDiary.getId())
+                        .header("If-Match", "\"v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    @DisplayName("If-Match 버전이 다르면 412 응답 테스트")
+    void updateDiaryWithStaleIfMatch() throws Exception {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+        DiaryUpdateRequest request = DiaryUpdateRequest.builder()
+                .title("수정된 제목")
+                .build();
+
+        // when & then
+        mockMvc.perform(put("/api/diaries/{id}", savedDiary.getId())
+                        .header("If-Match", "\"v7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("일기 부분 수정(PATCH) API 테스트")
+    void patchDiary() throws Exception {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+        DiaryUpdateRequest request = DiaryUpdateRequest.builder()
+                .title("수정된 제목")
+                .build();
+
+        // when & then
+        mockMvc.perform(patch("/api/diaries/{id}", savedDiary.getId())
+                        .header("If-Match", "\"v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(jsonPath("$.title").value("수정된 제목"))
+                .andExpect(jsonPath("$.contentPreview").doesNotExist());
+
+        mockMvc.perform(get("/api/diaries/{id}", savedDiary.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("수정된 제목"))
+                .andExpect(jsonPath("$.content").value("원래 내용"));
+
+        mockMvc.perform(patch("/api/diaries/{id}", savedDiary.getId())
+                        .header("If-Match", "\"v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("일기 삭제 API 테스트")
     void deleteDiary() throws Exception {
@@ -161,6 +371,31 @@ class DiaryControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("삭제한 일기 복구 API 테스트")
+    void restoreDiary() throws Exception {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("복구할 일기")
+                .content("복구할 내용")
+                .author("작성자")
+                .build());
+        mockMvc.perform(delete("/api/diaries/{id}", savedDiary.getId()))
+                .andExpect(status().isNoContent());
+
+        // when & then
+        mockMvc.perform(post("/api/diaries/{id}/restore", savedDiary.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("복구할 일기"));
+
+        mockMvc.perform(get("/api/diaries/{id}", savedDiary.getId()))
+                .andExpect(status().isOk());
+
+        // 삭제 상태가 아니면 복구할 수 없다
+        mockMvc.perform(post("/api/diaries/{id}/restore", savedDiary.getId()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("작성자별 일기 조회 API 테스트")
     void getDiariesByAuthor() throws Exception {
@@ -190,10 +425,11 @@ class DiaryControllerTest {
         // when & then
         mockMvc.perform(get("/api/diaries/author/{author}", "홍길동"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].author").value("홍길동"))
-                .andExpect(jsonPath("$[1].author").value("홍길동"));
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("홍길동의 일기2"))
+                .andExpect(jsonPath("$.content[1].title").value("홍길동의 일기1"))
+                .andExpect(jsonPath("$.hasNext").value(false));
     }
 
     @Test
@@ -212,4 +448,113 @@ class DiaryControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("작성자별 달력 조회 API 테스트")
+    void getCalendar() throws Exception {
+        // given
+        DiaryCreateRequest request = DiaryCreateRequest.builder()
+                .title("달력 일기")
+                .content("내용")
+                .author("달력작성자")
+                .build();
+        mockMvc.perform(post("/api/diaries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        String today = LocalDate.now().toString();
+
+        // when & then
+        mockMvc.perform(get("/api/diaries/author/{author}/calendar", "달력작성자")
+                        .param("from", today)
+                        .param("to", today))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.counts[0].date").value(today))
+                .andExpect(jsonPath("$.counts[0].count").value(1));
+
+        mockMvc.perform(get("/api/diaries/author/{author}/calendar", "달력작성자")
+                        .param("from", today)
+                        .param("to", today)
+                        .param("unit", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("내보내기만 긴 비동기 제한 시간을 쓴다")
+    void exportUsesExportTimeout() throws Exception {
+        // given
+        diaryRepository.save(Diary.builder().title("제목").content("내용").author("작성자").build());
+
+        // when
+        MvcResult export = mockMvc.perform(get("/api/diaries/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult changes = mockMvc.perform(get("/api/diaries/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        assertThat(export.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofMinutes(30).toMillis());
+        assertThat(changes.getRequest().getAsyncContext().getTimeout())
+                .isLessThan(Duration.ofMinutes(1).toMillis());
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("변경 피드 API 테스트")
+    void getChanges() throws Exception {
+        // since 없이 요청하면 현재 마지막 seq 를 반환한다
+        MvcResult head = mockMvc.perform(get("/api/diaries/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(head))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextSince").isNumber())
+                .andExpect(jsonPath("$.changes").isEmpty());
+
+        MvcResult invalid = mockMvc.perform(get("/api/diaries/changes").param("since", "-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(invalid))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("compact / fields 응답 표현 테스트")
+    void compactAndFieldFilteredResponse() throws Exception {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("압축 일기")
+                .content("내용")
+                .author("작성자")
+                .build());
+
+        // when & then
+        mockMvc.perform(get("/api/diaries/{id}", savedDiary.getId())
+                        .param("compact", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("압축 일기"))
+                .andExpect(jsonPath("$.createdAt").isNumber());
+
+        mockMvc.perform(get("/api/diaries/{id}", savedDiary.getId())
+                        .param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(savedDiary.getId()))
+                .andExpect(jsonPath("$.title").value("압축 일기"))
+                .andExpect(jsonPath("$.content").doesNotExist())
+                .andExpect(jsonPath("$.createdAt").doesNotExist());
+
+        // 목록은 항목 필드만 거르고 페이지 정보는 유지한다
+        mockMvc.perform(get("/api/diaries")
+                        .param("compact", "true")
+                        .param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(savedDiary.getId()))
+                .andExpect(jsonPath("$.content[0].title").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.diary.controller;
+
+import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.service.DiaryChangeFeed;
+import com.example.diary.service.DiaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * SSE 는 커밋된 변경만 보내므로 테스트 트랜잭션(롤백) 없이 실제로 커밋한다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DiaryEventStreamTest {
+
+    private static final String AUTHOR = "구독작성자";
+    private static final String OTHER_AUTHOR = "다른구독작성자";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DiaryService diaryService;
+
+    @Autowired
+    private DiaryChangeFeed diaryChangeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String author : new String[]{AUTHOR, OTHER_AUTHOR}) {
+            jdbcTemplate.update("delete from diary where author = ?", author);
+            jdbcTemplate.update("delete from diary_daily_count where author = ?", author);
+            jdbcTemplate.update("delete from diary_change where author = ?", author);
+        }
+    }
+
+    @Test
+    @DisplayName("구독한 작성자의 생성/삭제만 SSE 이벤트로 전달된다")
+    void pushesChangesOfAuthor() throws Exception {
+        // given
+        MvcResult result = mockMvc.perform(get("/api/diaries/author/{author}/events", AUTHOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when
+        DiaryResponse created = diaryService.createDiary(createRequest(AUTHOR, "실시간 일기"));
+        diaryService.createDiary(createRequest(OTHER_AUTHOR, "다른 사람 일기"));
+        diaryService.deleteDiary(created.getId());
+
+        // then
+        String body = awaitContent(result, "event:deleted");
+        assertThat(body).contains("event:created", "실시간 일기");
+        assertThat(body).doesNotContain("다른 사람 일기");
+        assertThat(body.indexOf("event:created")).isLessThan(body.indexOf("event:deleted"));
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID 로 다시 연결하면 놓친 변경부터 받는다")
+    void replaysFromLastEventId() throws Exception {
+        // given
+        long lastEventId = diaryChangeFeed.getChanges(null, null, null).getNextSince();
+        diaryService.createDiary(createRequest(AUTHOR, "연결이 끊긴 동안 쓴 일기"));
+
+        // when
+        MvcResult result = mockMvc.perform(get("/api/diaries/author/{author}/events", AUTHOR)
+                        .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        String body = awaitContent(result, "연결이 끊긴 동안 쓴 일기");
+        assertThat(body).contains("event:created");
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = "";
+        while (System.currentTimeMillis() < deadline) {
+            body = new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8);
+            if (body.contains(expected)) {
+                return body;
+            }
+            Thread.sleep(20);
+        }
+        fail("SSE 응답에 '" + expected + "' 가 오지 않았습니다: " + body);
+        return body;
+    }
+
+    private static DiaryCreateRequest createRequest(String author, String title) {
+        return DiaryCreateRequest.builder()
+                .title(title)
+                .content(title + " 내용")
+                .author(author)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.diary.controller;
+
+import com.example.diary.dto.DiaryCreateRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 주 DB 와 별개인 H2 인스턴스를 복제본으로 붙인다. 복제가 없으므로 복제본에는 주 DB 에 쓴 일기가 없으며,
+ * 어느 쪽에서 읽었는지를 결과로 구분할 수 있다.
+ */
+@SpringBootTest(properties = {
+        "diary.replicas.enabled=true",
+        "diary.replicas.read-your-writes-window=1m",
+        "diary.replicas.nodes[0].url=" + ReadYourWritesTest.REPLICA_URL
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadYourWritesTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica_test;DB_CLOSE_DELAY=-1";
+    private static final String AUTHOR = "복제본작성자";
+    private static final long PRIMARY_ONLY_ID = 9_000_001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "password").load().migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from diary where author = ?", AUTHOR);
+        jdbcTemplate.update("delete from diary_daily_count where author = ?", AUTHOR);
+    }
+
+    @Test
+    @DisplayName("쓰기 직후 같은 클라이언트는 주 DB 에서, 다른 클라이언트는 복제본에서 읽는다")
+    void readYourWrites() throws Exception {
+        // given
+        DiaryCreateRequest request = DiaryCreateRequest.builder()
+                .title("복제본 라우팅")
+                .content("내용")
+                .author(AUTHOR)
+                .build();
+        mockMvc.perform(post("/api/diaries")
+                        .header(ClientIds.CLIENT_ID_HEADER, "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // when & then
+        mockMvc.perform(get("/api/diaries/author/{author}", AUTHOR)
+                        .header(ClientIds.CLIENT_ID_HEADER, "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+
+        mockMvc.perform(get("/api/diaries/author/{author}", AUTHOR)
+                        .header(ClientIds.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("단건 조회 캐시 미스도 읽기 라우팅을 따르며 최근에 쓴 클라이언트만 주 DB 에서 읽는다")
+    void getDiaryCacheMissFollowsRouting() throws Exception {
+        // given: 캐시를 거치지 않고 주 DB 에만 넣은 일기
+        mockMvc.perform(post("/api/diaries")
+                        .header(ClientIds.CLIENT_ID_HEADER, "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(DiaryCreateRequest.builder()
+                                .title("쓰기 기록용")
+                                .content("내용")
+                                .author(AUTHOR)
+                                .build())))
+                .andExpect(status().isCreated());
+        jdbcTemplate.update("insert into diary (id, title, content, author, version, created_at, updated_at) " +
+                "values (?, '주 DB 에만 있는 일기', '내용', ?, 0, current_timestamp, current_timestamp)",
+                PRIMARY_ONLY_ID, AUTHOR);
+
+        // when & then
+        mockMvc.perform(get("/api/diaries/{id}", PRIMARY_ONLY_ID)
+                        .header(ClientIds.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/diaries/{id}", PRIMARY_ONLY_ID)
+                        .header(ClientIds.CLIENT_ID_HEADER, "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("주 DB 에만 있는 일기"));
+    }
+}
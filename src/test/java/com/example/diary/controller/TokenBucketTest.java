@@ -0,0 +1,86 @@
+package com.example.diary.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("버킷 크기만큼 허용한 뒤 거절하고, 다음 토큰까지 남은 시간을 알려준다")
+    void burstThenReject() {
+        // given
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        // when & then
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 2);
+
+        // 0.5 초 뒤 토큰 하나가 채워진다
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isPositive();
+    }
+
+    @Test
+    @DisplayName("오래 쉬어도 버킷 크기 이상으로 쌓이지 않는다")
+    void refillIsCappedAtCapacity() {
+        // given
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+        // when
+        long later = 60 * SECOND;
+
+        // then
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 가져가도 버킷 크기를 넘겨 허용하지 않는다")
+    void concurrentAcquireNeverOverGrants() throws Exception {
+        // given
+        TokenBucket bucket = new TokenBucket(100, 0.001, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // then
+        assertThat(granted.get()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("잘못된 버킷 설정은 거절한다")
+    void rejectInvalidConfig() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.diary.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiaryContentConverterTest {
+
+    private final DiaryContentConverter converter = new DiaryContentConverter();
+
+    @Test
+    @DisplayName("짧은 본문은 평문으로 저장된다")
+    void shortContentIsStoredAsIs() {
+        // given
+        String content = "오늘은 좋은 하루였습니다.";
+
+        // when
+        String stored = converter.convertToDatabaseColumn(content);
+
+        // then
+        assertThat(stored).isEqualTo(content);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("긴 본문은 압축되어 더 작게 저장되고 원래대로 읽힌다")
+    void longContentIsCompressed() {
+        // given
+        String content = repeat("오늘은 산책을 하고 일기를 썼다. ", 200);
+
+        // when
+        String stored = converter.convertToDatabaseColumn(content);
+
+        // then
+        assertThat(stored).startsWith(DiaryContentConverter.COMPRESSED_PREFIX);
+        assertThat(stored.length()).isLessThan(content.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("접두사로 시작하는 평문은 이스케이프되어 그대로 읽힌다")
+    void prefixedPlainTextIsEscaped() {
+        // given
+        String content = DiaryContentConverter.COMPRESSED_PREFIX + "압축이 아닌 본문";
+
+        // when
+        String stored = converter.convertToDatabaseColumn(content);
+
+        // then
+        assertThat(stored).startsWith(DiaryContentConverter.RAW_PREFIX);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("압축 도입 전의 행은 접두사가 있어도 풀리지 않으면 그대로 읽힌다")
+    void legacyRowIsReadAsIs() {
+        assertThat(converter.convertToEntityAttribute("예전 본문")).isEqualTo("예전 본문");
+        assertThat(converter.convertToEntityAttribute("~z1~압축 아님")).isEqualTo("~z1~압축 아님");
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.diary.repository;
 
+import com.example.diary.dto.DiarySummaryResponse;
 import com.example.diary.entity.Diary;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -70,7 +73,8 @@ class DiaryRepositoryTest {
         entityManager.persistAndFlush(diary3);
 
         // when
-        List<Diary> hongDiaries = diaryRepository.findByAuthor("홍길동");
+        List<DiarySummaryResponse> hongDiaries =
+                diaryRepository.findSummaryFirstPageByAuthor("홍길동", 0, PageRequest.of(0, 10));
 
         // then
         assertThat(hongDiaries).hasSize(2);
@@ -132,4 +136,127 @@ class DiaryRepositoryTest {
         // then
         assertThat(allDiaries).hasSize(2);
     }
+
+    @Test
+    @DisplayName("키셋 페이지네이션 조회 테스트")
+    void findPageAfter() {
+        // given
+        for (int i = 1; i <= 3; i++) {
+            entityManager.persistAndFlush(Diary.builder()
+                    .title("일기" + i)
+                    .content("내용" + i)
+                    .author("작성자")
+                    .build());
+        }
+
+        // when
+        List<DiarySummaryResponse> firstPage = diaryRepository.findSummaryFirstPage(2, PageRequest.of(0, 2));
+        DiarySummaryResponse last = firstPage.get(firstPage.size() - 1);
+        List<DiarySummaryResponse> nextPage = diaryRepository.findSummaryPageAfter(
+                last.getCreatedAt(), last.getId(), 2, PageRequest.of(0, 2));
+
+        // then
+        assertThat(firstPage).extracting("title").containsExactly("일기3", "일기2");
+        assertThat(firstPage).extracting("contentPreview").containsExactly("내용", "내용");
+        assertThat(nextPage).extracting("title").containsExactly("일기1");
+    }
+
+    @Test
+    @DisplayName("긴 본문은 압축 저장되고 목록 미리보기는 미리보기 컬럼에서 읽는 테스트")
+    void longContentIsCompressed() {
+        // given
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            content.append("긴 일기 내용 ").append(i).append(' ');
+        }
+        Diary diary = entityManager.persistFlushFind(Diary.builder()
+                .title("긴 일기")
+                .content(content.toString())
+                .author("작성자")
+                .build());
+        entityManager.clear();
+
+        // when
+        String stored = (String) entityManager.getEntityManager()
+                .createNativeQuery("select content from diary where id = ?1")
+                .setParameter(1, diary.getId())
+                .getSingleResult();
+        List<DiarySummaryResponse> summaries = diaryRepository.findSummaryFirstPage(5, PageRequest.of(0, 1));
+
+        // then
+        assertThat(stored).startsWith("~z1~");
+        assertThat(stored.length()).isLessThan(content.length());
+        assertThat(diaryRepository.findById(diary.getId()).get().getContent()).isEqualTo(content.toString());
+        assertThat(summaries).extracting("contentPreview").containsExactly("긴 일기 ");
+    }
+
+    @Test
+    @DisplayName("미리보기 컬럼이 비어 있는 기존 행은 본문에서 미리보기를 자르는 테스트")
+    void previewFallsBackToContent() {
+        // given
+        Diary diary = entityManager.persistFlushFind(Diary.builder()
+                .title("예전 일기")
+                .content("미리보기 컬럼 추가 전에 쓴 일기")
+                .author("작성자")
+                .build());
+        entityManager.getEntityManager()
+                .createNativeQuery("update diary set content_preview = null where id = ?1")
+                .setParameter(1, diary.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        // when
+        List<DiarySummaryResponse> summaries = diaryRepository.findSummaryFirstPage(5, PageRequest.of(0, 1));
+
+        // then
+        assertThat(summaries).extracting("contentPreview").containsExactly("미리보기 ");
+    }
+
+    @Test
+    @DisplayName("삭제 표시된 일기는 조회에서 제외 테스트")
+    void softDeletedDiaryIsHidden() {
+        // given
+        Diary kept = entityManager.persist(Diary.builder()
+                .title("남은 일기")
+                .content("내용")
+                .author("작성자")
+                .build());
+        Diary deleted = entityManager.persist(Diary.builder()
+                .title("삭제된 일기")
+                .content("내용")
+                .author("작성자")
+                .build());
+
+        // when
+        int updated = diaryRepository.softDeleteById(deleted.getId(), LocalDateTime.now());
+
+        // then
+        assertThat(updated).isEqualTo(1);
+        assertThat(diaryRepository.findById(deleted.getId())).isEmpty();
+        assertThat(diaryRepository.findSummaryFirstPageByAuthor("작성자", 0, PageRequest.of(0, 10)))
+                .extracting("id")
+                .containsExactly(kept.getId());
+        assertThat(diaryRepository.softDeleteById(deleted.getId(), LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("마이그레이션으로 조회 경로 인덱스 생성 테스트")
+    void migrationCreatesIndexes() {
+        // when
+        @SuppressWarnings("unchecked")
+        List<String> indexNames = entityManager.getEntityManager()
+                .createNativeQuery("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'DIARY'")
+                .getResultList();
+
+        @SuppressWarnings("unchecked")
+        List<String> listOrdering = entityManager.getEntityManager()
+                .createNativeQuery("SELECT ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                        "WHERE INDEX_NAME = 'IDX_DIARY_CREATED_AT_ID' ORDER BY ORDINAL_POSITION")
+                .getResultList();
+
+        // then
+        assertThat(indexNames).contains("IDX_DIARY_AUTHOR_CREATED_AT_ID", "IDX_DIARY_CREATED_AT_ID")
+                .doesNotContain("IDX_DIARY_AUTHOR_CREATED_AT", "IDX_DIARY_CREATED_AT");
+        assertThat(listOrdering).containsExactly("DESC", "DESC");
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiaryCacheTest {
+
+    private DiaryCache diaryCache;
+
+    @BeforeEach
+    void setUp() {
+        DiaryProperties properties = new DiaryProperties();
+        properties.getCache().setMaximumSize(100);
+        diaryCache = new DiaryCache(properties);
+    }
+
+    @Test
+    @DisplayName("캐시 적재 후 재조회 시 loader 를 호출하지 않는다")
+    void readThrough() {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        diaryCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return response(id, "제목");
+        });
+        DiaryResponse cached = diaryCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return response(id, "다른 제목");
+        });
+
+        // then
+        assertThat(cached.getTitle()).isEqualTo("제목");
+        assertThat(loads).hasValue(1);
+        assertThat(diaryCache.stats().hitCount()).isEqualTo(1);
+        assertThat(diaryCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("없는 일기는 캐시하지 않는다")
+    void missingIsNotCached() {
+        // when
+        DiaryResponse missing = diaryCache.get(1L, id -> null);
+
+        // then
+        assertThat(missing).isNull();
+        assertThat(diaryCache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서 무효화하면 즉시 제거된다")
+    void evict() {
+        // given
+        diaryCache.putAfterCommit(response(1L, "제목"));
+
+        // when
+        diaryCache.evict(1L);
+
+        // then
+        assertThat(diaryCache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("복제본 라우팅을 쓰면 복제 지연 시간이 지나 한 번 더 무효화한다")
+    void evictAgainAfterReplicaLag() throws InterruptedException {
+        // given
+        DiaryProperties properties = new DiaryProperties();
+        properties.getReplicas().setEnabled(true);
+        properties.getReplicas().setReadYourWritesWindow(Duration.ofMillis(100));
+        DiaryCache replicaCache = new DiaryCache(properties);
+
+        // when: 무효화 직후 뒤처진 복제본의 이전 값이 다시 적재된다
+        replicaCache.evict(1L);
+        replicaCache.get(1L, id -> response(id, "이전 제목"));
+
+        // then
+        assertThat(replicaCache.getIfPresent(1L)).isNotNull();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (replicaCache.getIfPresent(1L) != null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(replicaCache.getIfPresent(1L)).isNull();
+    }
+
+    private DiaryResponse response(Long id, String title) {
+        return DiaryResponse.builder()
+                .id(id)
+                .title(title)
+                .content("내용")
+                .author("작성자")
+                .build();
+    }
+}
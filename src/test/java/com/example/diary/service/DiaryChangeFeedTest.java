@@ -0,0 +1,232 @@
+package com.example.diary.service;
+
+import com.example.diary.dto.DiaryChangeResponse;
+import com.example.diary.dto.DiaryChangesResponse;
+import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiaryUpdateRequest;
+import com.example.diary.entity.DiaryChange;
+import com.example.diary.exception.DiaryChangeFeedExpiredException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 변경 피드는 커밋 직전에 기록되므로 테스트 트랜잭션(롤백) 없이 실제로 커밋한다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DiaryChangeFeedTest {
+
+    private static final String AUTHOR = "변경피드작성자";
+    private static final String OTHER_AUTHOR = "다른변경피드작성자";
+
+    @Autowired
+    private DiaryService diaryService;
+
+    @Autowired
+    private DiaryChangeFeed diaryChangeFeed;
+
+    @Autowired
+    private DiaryPurgeJob diaryPurgeJob;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long head;
+
+    @BeforeEach
+    void setUp() {
+        head = diaryChangeFeed.getChanges(null, null, null).getNextSince();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String author : new String[]{AUTHOR, OTHER_AUTHOR}) {
+            jdbcTemplate.update("delete from diary where author = ?", author);
+            jdbcTemplate.update("delete from diary_daily_count where author = ?", author);
+        }
+    }
+
+    @Test
+    @DisplayName("생성/수정/삭제가 커밋 순서대로 기록되고 삭제는 내용 없는 항목으로 전달된다")
+    void changesIncludeTombstones() {
+        // given
+        DiaryResponse kept = diaryService.createDiary(request("남길 일기"));
+        DiaryResponse removed = diaryService.createDiary(request("지울 일기"));
+        diaryService.patchDiary(kept.getId(), new DiaryUpdateRequest("수정한 제목", null), null);
+        diaryService.deleteDiary(removed.getId());
+
+        // when
+        DiaryChangesResponse response = diaryChangeFeed.getChanges(head, null, AUTHOR);
+
+        // then
+        assertThat(response.getChanges())
+                .extracting(DiaryChangeResponse::getType, DiaryChangeResponse::getDiaryId)
+                .containsExactly(
+                        tuple(DiaryChange.Type.CREATED, kept.getId()),
+                        tuple(DiaryChange.Type.CREATED, removed.getId()),
+                        tuple(DiaryChange.Type.UPDATED, kept.getId()),
+                        tuple(DiaryChange.Type.DELETED, removed.getId()));
+        assertThat(response.getChanges())
+                .extracting(DiaryChangeResponse::getSeq)
+                .isSorted();
+
+        // 생성 항목에도 현재 내용이 담기고, 삭제된 일기는 내용 없이 전달된다
+        assertThat(response.getChanges().get(0).getDiary().getTitle()).isEqualTo("수정한 제목");
+        assertThat(response.getChanges().get(1).getDiary()).isNull();
+        assertThat(response.getChanges().get(3).getDiary()).isNull();
+
+        assertThat(response.getNextSince()).isEqualTo(response.getChanges().get(3).getSeq());
+        assertThat(diaryChangeFeed.getChanges(response.getNextSince(), null, AUTHOR).getChanges()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("limit 만큼 나눠 받고 남은 변경이 있으면 hasMore 를 표시한다")
+    void getChangesWithLimit() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            diaryService.createDiary(request("일기 " + i));
+        }
+
+        // when
+        DiaryChangesResponse first = diaryChangeFeed.getChanges(head, 2, AUTHOR);
+        DiaryChangesResponse second = diaryChangeFeed.getChanges(first.getNextSince(), 2, AUTHOR);
+
+        // then
+        assertThat(first.getChanges()).hasSize(2);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getChanges()).hasSize(1);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getChanges().get(0).getDiary().getTitle()).isEqualTo("일기 2");
+    }
+
+    @Test
+    @DisplayName("seq 를 예약한 트랜잭션이 커밋할 때까지 같은 샤드의 다른 쓰기는 커밋하지 못한다")
+    void concurrentWritesAreSerializedOnSeqRow() throws Exception {
+        // given: 첫 트랜잭션이 seq 를 예약한 뒤(변경 기록 동기화 다음 순서) 커밋 직전에 멈춘다
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Long id = diaryService.createDiary(request("먼저 예약한 일기")).getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    reserved.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            return id;
+        }));
+        assertThat(reserved.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when: 일별 집계 행을 함께 잠그지 않도록 다른 작성자로 쓴다
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> diaryService.createDiary(
+                DiaryCreateRequest.builder().title("나중에 쓴 일기").content("내용").author(OTHER_AUTHOR).build())
+                .getId());
+
+        // then: 두 번째 쓰기는 seq 행 잠금에서 기다리다가 첫 트랜잭션이 커밋한 뒤에 이어서 커밋한다
+        Thread.sleep(300);
+        assertThat(second.isDone()).isFalse();
+        release.countDown();
+        Long firstId = first.get(5, TimeUnit.SECONDS);
+        Long secondId = second.get(5, TimeUnit.SECONDS);
+
+        assertThat(diaryChangeFeed.getChanges(head, null, null).getChanges())
+                .extracting(DiaryChangeResponse::getDiaryId)
+                .containsExactly(firstId, secondId);
+    }
+
+    @Test
+    @DisplayName("롤백된 변경은 기록되지 않는다")
+    void rolledBackChangeIsNotRecorded() {
+        // when
+        transactionTemplate.execute(status -> {
+            diaryService.createDiary(request("롤백될 일기"));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        // then
+        assertThat(diaryChangeFeed.getChanges(head, null, AUTHOR).getChanges()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("롱 폴링은 해당 작성자의 변경이 커밋되면 완료된다")
+    void pollCompletesOnCommit() throws Exception {
+        // given
+        CompletableFuture<DiaryChangesResponse> future = diaryChangeFeed.poll(head, null, AUTHOR, 10);
+        assertThat(future.isDone()).isFalse();
+
+        // when
+        DiaryResponse created = diaryService.createDiary(request("기다리던 일기"));
+
+        // then
+        DiaryChangesResponse response = future.get(5, TimeUnit.SECONDS);
+        assertThat(response.getChanges())
+                .extracting(DiaryChangeResponse::getDiaryId)
+                .containsExactly(created.getId());
+    }
+
+    @Test
+    @DisplayName("대기 시간 안에 변경이 없으면 빈 결과로 완료된다")
+    void pollTimesOut() throws Exception {
+        // when
+        DiaryChangesResponse response = diaryChangeFeed.poll(head, null, "변경없는작성자", 1)
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(response.getChanges()).isEmpty();
+        assertThat(response.getNextSince()).isEqualTo(head);
+    }
+
+    @Test
+    @DisplayName("보관 기간이 지나 지워진 구간의 since 는 거절한다")
+    void expiredSinceIsRejected() {
+        // given
+        diaryService.createDiary(request("정리될 일기"));
+        long latest = diaryChangeFeed.getChanges(head, null, AUTHOR).getNextSince();
+
+        // when
+        int pruned = diaryPurgeJob.pruneChangesBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(pruned).isPositive();
+        assertThatThrownBy(() -> diaryChangeFeed.getChanges(head, null, AUTHOR))
+                .isInstanceOf(DiaryChangeFeedExpiredException.class);
+        assertThat(diaryChangeFeed.getChanges(latest, null, AUTHOR).getChanges()).isEmpty();
+        assertThatThrownBy(() -> diaryChangeFeed.getChanges(-1L, null, AUTHOR))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DiaryCreateRequest request(String title) {
+        return DiaryCreateRequest.builder()
+                .title(title)
+                .content(title + " 내용")
+                .author(AUTHOR)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.diary.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiarySearchIndexTest {
+
+    private DiarySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DiarySearchIndex();
+    }
+
+    @Test
+    @DisplayName("한글은 2-gram, 영문은 단어 단위로 토큰화한다")
+    void tokenize() {
+        // when
+        List<String> tokens = DiaryTokenizer.tokenize("오늘의 일기, Spring Boot!");
+
+        // then
+        assertThat(tokens).containsExactly("오늘", "늘의", "일기", "spring", "boot");
+    }
+
+    @Test
+    @DisplayName("제목과 내용 모두 검색되며 제목 일치가 더 높은 점수를 받는다")
+    void searchRanksTitleMatchesFirst() {
+        // given
+        index.index(1L, "평범한 하루", "오늘은 산책을 했다");
+        index.index(2L, "산책 일기", "공원에 다녀왔다");
+        index.index(3L, "회사", "야근을 했다");
+
+        // when
+        List<Long> result = index.search("산책");
+
+        // then
+        assertThat(result).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("한 글자 질의는 색인된 글자 1-gram 으로 찾는다")
+    void searchSingleCharacter() {
+        // given
+        index.index(1L, "산책 일기", "공원");
+        index.index(2L, "회사", "야근");
+
+        // when & then
+        assertThat(DiaryTokenizer.tokenizeForIndex("산책")).containsExactly("산책", "산", "책");
+        assertThat(index.search("책")).containsExactly(1L);
+        assertThat(index.search("근")).containsExactly(2L);
+        assertThat(index.search("바")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("재색인과 삭제가 포스팅에 반영된다")
+    void reindexAndRemove() {
+        // given
+        index.index(1L, "여행", "바다에 갔다");
+
+        // when
+        index.index(1L, "여행", "산에 갔다");
+
+        // then
+        assertThat(index.search("바다")).isEmpty();
+        assertThat(index.search("산에")).containsExactly(1L);
+
+        // when
+        index.remove(1L);
+
+        // then
+        assertThat(index.search("여행")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("필드 단위 재색인은 다른 필드의 토큰을 유지한다")
+    void indexFieldsKeepsOtherField() {
+        // given
+        index.index(1L, "여행", "바다에 갔다");
+
+        // when
+        index.indexFields(1L, "출장", null);
+
+        // then
+        assertThat(index.search("여행")).isEmpty();
+        assertThat(index.search("출장")).containsExactly(1L);
+        assertThat(index.search("바다")).containsExactly(1L);
+    }
+}
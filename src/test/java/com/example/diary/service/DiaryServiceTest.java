@@ -1,10 +1,19 @@
 package com.example.diary.service;
 
+import com.example.diary.dto.CursorPageResponse;
+import com.example.diary.dto.DiaryCalendarResponse;
+import com.example.diary.dto.DiaryBatchUpdateRequest;
 import com.example.diary.dto.DiaryCreateRequest;
 import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySearchResponse;
+import com.example.diary.dto.DiarySummaryResponse;
 import com.example.diary.dto.DiaryUpdateRequest;
 import com.example.diary.entity.Diary;
+import com.example.diary.exception.DiaryPreconditionFailedException;
 import com.example.diary.repository.DiaryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +22,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,9 +44,28 @@ class DiaryServiceTest {
     @Autowired
     private DiaryRepository diaryRepository;
 
+    @Autowired
+    private DiaryCache diaryCache;
+
+    @Autowired
+    private DiarySearchService diarySearchService;
+
+    @Autowired
+    private DiarySearchIndex diarySearchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DiaryPurgeJob diaryPurgeJob;
+
+    @Autowired
+    private DiaryCalendarService diaryCalendarService;
+
     @BeforeEach
     void setUp() {
         diaryRepository.deleteAll();
+        diarySearchIndex.clear();
     }
 
     @Test
@@ -56,6 +90,34 @@ class DiaryServiceTest {
         assertThat(response.getUpdatedAt()).isNotNull();
     }
 
+    @Test
+    @DisplayName("예약한 ID 로 일기 생성 테스트")
+    void createDiariesWithReservedIds() {
+        // given
+        DiaryCreateRequest first = DiaryCreateRequest.builder()
+                .title("예약 일기1")
+                .content("내용")
+                .author("예약 작성자")
+                .build();
+        DiaryCreateRequest second = DiaryCreateRequest.builder()
+                .title("예약 일기2")
+                .content("내용")
+                .author("예약 작성자")
+                .build();
+        Long firstId = diaryService.reserveId(first);
+        Long secondId = diaryService.reserveId(second);
+
+        // when
+        List<DiaryResponse> created = diaryService.createDiaries(Arrays.asList(first, second),
+                Arrays.asList(firstId, secondId));
+
+        // then
+        assertThat(firstId).isNotEqualTo(secondId);
+        assertThat(created).extracting("id").containsExactly(firstId, secondId);
+        assertThat(diaryRepository.findById(secondId)).get()
+                .extracting(Diary::getTitle).isEqualTo("예약 일기2");
+    }
+
     @Test
     @DisplayName("일기 조회 테스트")
     void getDiary() {
@@ -77,6 +139,46 @@ class DiaryServiceTest {
         assertThat(response.getAuthor()).isEqualTo("조회할 작성자");
     }
 
+    @Test
+    @DisplayName("일기 재조회 시 캐시 적중 테스트")
+    void getDiaryHitsCache() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("캐시할 일기")
+                .content("캐시할 내용")
+                .author("작성자")
+                .build());
+        diaryService.getDiary(savedDiary.getId());
+        long hitsBefore = diaryCache.stats().hitCount();
+
+        // when
+        DiaryResponse response = diaryService.getDiary(savedDiary.getId());
+
+        // then
+        assertThat(response.getTitle()).isEqualTo("캐시할 일기");
+        assertThat(diaryCache.stats().hitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("일기 수정 후 조회 시 캐시가 갱신되는지 테스트")
+    void updateDiaryEvictsCache() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+        diaryService.getDiary(savedDiary.getId());
+
+        // when
+        diaryService.updateDiary(savedDiary.getId(), DiaryUpdateRequest.builder()
+                .title("수정된 제목")
+                .build());
+
+        // then
+        assertThat(diaryService.getDiary(savedDiary.getId()).getTitle()).isEqualTo("수정된 제목");
+    }
+
     @Test
     @DisplayName("존재하지 않는 일기 조회 테스트")
     void getDiaryNotFound() {
@@ -106,10 +208,69 @@ class DiaryServiceTest {
         diaryRepository.save(diary2);
 
         // when
-        List<DiaryResponse> responses = diaryService.getAllDiaries();
+        CursorPageResponse<DiarySummaryResponse> page = diaryService.getDiaries(null, null, null);
+
+        // then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("커서 기반 일기 목록 페이지 조회 테스트")
+    void getDiariesWithCursor() {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            diaryRepository.save(Diary.builder()
+                    .title("일기" + i)
+                    .content("내용" + i)
+                    .author("작성자")
+                    .build());
+        }
+
+        // when
+        CursorPageResponse<DiarySummaryResponse> firstPage = diaryService.getDiaries(null, 2, null);
+        CursorPageResponse<DiarySummaryResponse> secondPage = diaryService.getDiaries(firstPage.getNextCursor(), 2, null);
+        CursorPageResponse<DiarySummaryResponse> lastPage = diaryService.getDiaries(secondPage.getNextCursor(), 2, null);
 
         // then
-        assertThat(responses).hasSize(2);
+        assertThat(firstPage.getContent()).hasSize(2);
+        assertThat(secondPage.getContent()).hasSize(2);
+        assertThat(lastPage.getContent()).hasSize(1);
+        assertThat(lastPage.isHasNext()).isFalse();
+        assertThat(firstPage.getContent().get(0).getTitle()).isEqualTo("일기5");
+        assertThat(lastPage.getContent().get(0).getTitle()).isEqualTo("일기1");
+    }
+
+    @Test
+    @DisplayName("일기 목록 내용 미리보기 테스트")
+    void getDiariesWithPreview() {
+        // given
+        diaryRepository.save(Diary.builder()
+                .title("긴 일기")
+                .content("오늘은 아침 일찍 일어나서 산책을 했다")
+                .author("작성자")
+                .build());
+
+        // when
+        CursorPageResponse<DiarySummaryResponse> withoutPreview = diaryService.getDiaries(null, null, null);
+        CursorPageResponse<DiarySummaryResponse> withPreview = diaryService.getDiaries(null, null, 5);
+
+        // then
+        assertThat(withoutPreview.getContent().get(0).getContentPreview()).isNull();
+        assertThat(withPreview.getContent().get(0).getContentPreview()).isEqualTo("오늘은 아");
+    }
+
+    @Test
+    @DisplayName("페이지 크기 상한 적용 테스트")
+    void getDiariesPageSizeIsCapped() {
+        // when
+        CursorPageResponse<DiarySummaryResponse> page = diaryService.getDiaries(null, 10_000, null);
+
+        // then
+        assertThat(page.getContent()).isEmpty();
+        assertThatThrownBy(() -> diaryService.getDiaries(null, 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
@@ -137,6 +298,53 @@ class DiaryServiceTest {
         assertThat(response.getAuthor()).isEqualTo("원래 작성자");
     }
 
+    @Test
+    @DisplayName("일기 부분 수정 테스트")
+    void patchDiary() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+
+        // when
+        DiarySummaryResponse response = diaryService.patchDiary(savedDiary.getId(),
+                DiaryUpdateRequest.builder().content("수정된 내용").build(), null);
+
+        // then
+        assertThat(response.getTitle()).isEqualTo("원래 제목");
+        assertThat(response.getContentPreview()).isNull();
+        assertThat(response.getVersion()).isEqualTo(1L);
+
+        DiaryResponse reloaded = diaryService.getDiary(savedDiary.getId());
+        assertThat(reloaded.getTitle()).isEqualTo("원래 제목");
+        assertThat(reloaded.getContent()).isEqualTo("수정된 내용");
+    }
+
+    @Test
+    @DisplayName("일기 부분 수정 시 버전 불일치 및 빈 요청 테스트")
+    void patchDiaryRejectsStaleVersionAndEmptyRequest() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+
+        // when & then
+        assertThatThrownBy(() -> diaryService.patchDiary(savedDiary.getId(),
+                DiaryUpdateRequest.builder().title("수정된 제목").build(), 5L))
+                .isInstanceOf(DiaryPreconditionFailedException.class);
+        assertThatThrownBy(() -> diaryService.patchDiary(savedDiary.getId(),
+                DiaryUpdateRequest.builder().build(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> diaryService.patchDiary(999L,
+                DiaryUpdateRequest.builder().title("수정된 제목").build(), null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("일기를 찾을 수 없습니다");
+    }
+
     @Test
     @DisplayName("일기 삭제 테스트")
     void deleteDiary() {
@@ -156,6 +364,150 @@ class DiaryServiceTest {
         assertThat(deletedDiary).isEmpty();
     }
 
+    @Test
+    @DisplayName("삭제한 일기 복구 테스트")
+    void restoreDiary() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("복구할 일기")
+                .content("복구할 내용")
+                .author("작성자")
+                .build());
+        diaryService.deleteDiary(savedDiary.getId());
+        assertThatThrownBy(() -> diaryService.getDiary(savedDiary.getId()))
+                .isInstanceOf(RuntimeException.class);
+
+        // when
+        DiaryResponse restored = diaryService.restoreDiary(savedDiary.getId());
+
+        // then
+        assertThat(restored.getTitle()).isEqualTo("복구할 일기");
+        assertThat(restored.getVersion()).isEqualTo(2L);
+        assertThat(diaryService.getDiary(savedDiary.getId()).getTitle()).isEqualTo("복구할 일기");
+        assertThatThrownBy(() -> diaryService.restoreDiary(savedDiary.getId()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("복구할 일기를 찾을 수 없습니다");
+    }
+
+    @Test
+    @DisplayName("삭제된 일기 영구 삭제 테스트")
+    void purgeDeletedDiaries() {
+        // given
+        Diary deleted = diaryRepository.save(Diary.builder()
+                .title("영구 삭제될 일기")
+                .content("내용")
+                .author("작성자")
+                .build());
+        Diary kept = diaryRepository.save(Diary.builder()
+                .title("남을 일기")
+                .content("내용")
+                .author("작성자")
+                .build());
+        diaryService.deleteDiary(deleted.getId());
+
+        // when
+        int purged = diaryPurgeJob.purgeDeletedBefore(LocalDateTime.now().plusMinutes(1));
+
+        // then
+        assertThat(purged).isGreaterThanOrEqualTo(1);
+        assertThatThrownBy(() -> diaryService.restoreDiary(deleted.getId()))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(diaryRepository.existsById(kept.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("일기 수정 시 버전 증가 테스트")
+    void updateDiaryIncrementsVersion() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+
+        // when
+        DiaryResponse response = diaryService.updateDiary(savedDiary.getId(),
+                DiaryUpdateRequest.builder().content("수정된 내용").build(), 0L);
+
+        // then
+        assertThat(response.getVersion()).isEqualTo(1L);
+        assertThat(response.getTitle()).isEqualTo("원래 제목");
+    }
+
+    @Test
+    @DisplayName("기대 버전이 다른 일기 수정 테스트")
+    void updateDiaryWithStaleVersion() {
+        // given
+        Diary savedDiary = diaryRepository.save(Diary.builder()
+                .title("원래 제목")
+                .content("원래 내용")
+                .author("작성자")
+                .build());
+
+        // when & then
+        assertThatThrownBy(() -> diaryService.updateDiary(savedDiary.getId(),
+                DiaryUpdateRequest.builder().title("수정된 제목").build(), 3L))
+                .isInstanceOf(DiaryPreconditionFailedException.class);
+    }
+
+    @Test
+    @DisplayName("일기 일괄 수정 테스트")
+    void updateDiaries() {
+        // given
+        Diary diary1 = diaryRepository.save(Diary.builder()
+                .title("제목1")
+                .content("내용1")
+                .author("작성자")
+                .build());
+        Diary diary2 = diaryRepository.save(Diary.builder()
+                .title("제목2")
+                .content("내용2")
+                .author("작성자")
+                .build());
+
+        // when
+        List<DiaryResponse> responses = diaryService.updateDiaries(Arrays.asList(
+                DiaryBatchUpdateRequest.Item.builder().id(diary1.getId()).title("수정된 제목1").build(),
+                DiaryBatchUpdateRequest.Item.builder().id(diary2.getId()).content("수정된 내용2").build()));
+
+        // then
+        assertThat(responses).extracting("title").containsExactly("수정된 제목1", "제목2");
+        assertThat(responses).extracting("content").containsExactly("내용1", "수정된 내용2");
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 일기가 포함된 일괄 수정 테스트")
+    void updateDiariesNotFound() {
+        // when & then
+        assertThatThrownBy(() -> diaryService.updateDiaries(Arrays.asList(
+                DiaryBatchUpdateRequest.Item.builder().id(999L).title("제목").build())))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("일기를 찾을 수 없습니다. ID: 999");
+    }
+
+    @Test
+    @DisplayName("일기 일괄 삭제 테스트")
+    void deleteDiaries() {
+        // given
+        Diary diary1 = diaryRepository.save(Diary.builder()
+                .title("삭제할 일기1")
+                .content("내용1")
+                .author("작성자")
+                .build());
+        Diary diary2 = diaryRepository.save(Diary.builder()
+                .title("삭제할 일기2")
+                .content("내용2")
+                .author("작성자")
+                .build());
+
+        // when
+        diaryService.deleteDiaries(Arrays.asList(diary1.getId(), diary2.getId(), 999L));
+
+        // then
+        assertThat(diaryRepository.existsById(diary1.getId())).isFalse();
+        assertThat(diaryRepository.existsById(diary2.getId())).isFalse();
+    }
+
     @Test
     @DisplayName("작성자별 일기 조회 테스트")
     void getDiariesByAuthor() {
@@ -183,10 +535,182 @@ class DiaryServiceTest {
         diaryRepository.save(diary3);
 
         // when
-        List<DiaryResponse> responses = diaryService.getDiariesByAuthor("홍길동");
+        CursorPageResponse<DiarySummaryResponse> page = diaryService.getDiariesByAuthor("홍길동", null, null, null);
+
+        // then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent()).extracting("author").containsOnly("홍길동");
+    }
+
+    @Test
+    @DisplayName("작성자별 일기 커서 페이지 조회 테스트")
+    void getDiariesByAuthorWithCursor() {
+        // given
+        for (int i = 1; i <= 3; i++) {
+            diaryRepository.save(Diary.builder()
+                    .title("홍길동의 일기" + i)
+                    .content("내용" + i)
+                    .author("홍길동")
+                    .build());
+        }
+        diaryRepository.save(Diary.builder()
+                .title("김철수의 일기")
+                .content("내용")
+                .author("김철수")
+                .build());
+
+        // when
+        CursorPageResponse<DiarySummaryResponse> firstPage = diaryService.getDiariesByAuthor("홍길동", null, 2, null);
+        CursorPageResponse<DiarySummaryResponse> lastPage =
+                diaryService.getDiariesByAuthor("홍길동", firstPage.getNextCursor(), 2, null);
+
+        // then
+        assertThat(firstPage.getContent()).extracting("title")
+                .containsExactly("홍길동의 일기3", "홍길동의 일기2");
+        assertThat(lastPage.getContent()).extracting("title")
+                .containsExactly("홍길동의 일기1");
+        assertThat(lastPage.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("일기 NDJSON 내보내기 테스트")
+    void exportDiaries() throws Exception {
+        // given
+        diaryRepository.save(Diary.builder()
+                .title("내보낼 일기1")
+                .content("내용1")
+                .author("작성자")
+                .build());
+        diaryRepository.save(Diary.builder()
+                .title("내보낼 일기2")
+                .content("내용2")
+                .author("작성자")
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        diaryService.exportDiaries(out);
+
+        // then
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"title\":\"내보낼 일기1\"");
+        assertThat(lines[1]).contains("\"title\":\"내보낼 일기2\"");
+    }
+
+    @Test
+    @DisplayName("일기 전문 검색 테스트")
+    void searchDiaries() {
+        // given
+        Diary walk = diaryRepository.save(Diary.builder()
+                .title("산책 일기")
+                .content("공원에 다녀왔다")
+                .author("작성자")
+                .build());
+        Diary work = diaryRepository.save(Diary.builder()
+                .title("회사 일기")
+                .content("야근 후 산책")
+                .author("작성자")
+                .build());
+        diaryRepository.save(Diary.builder()
+                .title("여행")
+                .content("바다에 갔다")
+                .author("작성자")
+                .build());
+        diarySearchService.rebuild();
+
+        // when
+        DiarySearchResponse response = diarySearchService.search("산책", 0, 10);
+
+        // then
+        assertThat(response.getTotalHits()).isEqualTo(2);
+        assertThat(response.getContent()).extracting("id")
+                .containsExactly(walk.getId(), work.getId());
+        assertThat(response.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("색인에만 남은 일기는 건너뛰고 다음 결과로 페이지를 채운다")
+    void searchSkipsStaleIndexEntries() {
+        // given
+        Diary walk = diaryRepository.save(Diary.builder()
+                .title("산책 일기")
+                .content("공원에 다녀왔다")
+                .author("작성자")
+                .build());
+        diarySearchService.rebuild();
+        diarySearchIndex.index(walk.getId() + 1000, "산책 산책", "삭제된 산책 일기");
+
+        // when
+        DiarySearchResponse response = diarySearchService.search("산책", 0, 1);
 
         // then
-        assertThat(responses).hasSize(2);
-        assertThat(responses).extracting("author").containsOnly("홍길동");
+        assertThat(response.getContent()).extracting("id").containsExactly(walk.getId());
+        assertThat(response.getTotalHits()).isEqualTo(2);
+        assertThat(response.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("서비스 실행 시간과 리포지토리 반환 행 수 메트릭 기록 테스트")
+    void recordMetrics() {
+        // given
+        diaryRepository.save(Diary.builder()
+                .title("메트릭 일기1")
+                .content("내용")
+                .author("메트릭")
+                .build());
+        diaryRepository.save(Diary.builder()
+                .title("메트릭 일기2")
+                .content("내용")
+                .author("메트릭")
+                .build());
+        DistributionSummary rows = meterRegistry.summary("diary.repository.rows",
+                "method", "findSummaryFirstPageByAuthor");
+        double rowsBefore = rows.totalAmount();
+
+        // when
+        diaryService.getDiariesByAuthor("메트릭", null, null, null);
+
+        // then
+        Timer timer = meterRegistry.find("diary.service.invocations")
+                .tags("method", "getDiariesByAuthor", "exception", "none")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+        assertThat(rows.totalAmount() - rowsBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("작성자별 달력 집계 테스트")
+    void getCalendar() {
+        // given
+        DiaryResponse first = diaryService.createDiary(calendarRequest("달력 일기1"));
+        diaryService.createDiaries(Arrays.asList(calendarRequest("달력 일기2"), calendarRequest("달력 일기3")));
+        diaryService.deleteDiary(first.getId());
+        LocalDate today = first.getCreatedAt().toLocalDate();
+
+        // when
+        DiaryCalendarResponse byDay = diaryCalendarService.getCalendar("달력작성자", today, today, null);
+        DiaryCalendarResponse byMonth = diaryCalendarService.getCalendar("달력작성자", today, today, "month");
+
+        // then
+        assertThat(byDay.getTotal()).isEqualTo(2);
+        assertThat(byDay.getCounts()).extracting("date").containsExactly(today.toString());
+        assertThat(byMonth.getCounts()).extracting("date").containsExactly(YearMonth.from(today).toString());
+        assertThat(byMonth.getCounts()).extracting("count").containsExactly(2L);
+
+        // GROUP BY 로 다시 만들어도 같은 결과
+        diaryCalendarService.rebuild();
+        assertThat(diaryCalendarService.getCalendar("달력작성자", today, today, null).getTotal()).isEqualTo(2);
+        assertThatThrownBy(() -> diaryCalendarService.getCalendar("달력작성자", today, today, "week"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DiaryCreateRequest calendarRequest(String title) {
+        return DiaryCreateRequest.builder()
+                .title(title)
+                .content("내용")
+                .author("달력작성자")
+                .build();
     }
 }
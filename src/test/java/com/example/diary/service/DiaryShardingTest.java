@@ -0,0 +1,187 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryShards;
+import com.example.diary.dto.CursorPageResponse;
+import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiarySummaryResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 별개의 H2 인스턴스 두 개를 샤드로 붙인다. 샤드마다 별도 트랜잭션으로 커밋하므로 테스트 트랜잭션 없이 실행하고,
+ * 어느 샤드에 저장되었는지는 각 DB 를 직접 조회해 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + DiaryShardingTest.SHARD_0_URL,
+        "diary.shards.enabled=true",
+        "diary.shards.nodes[0].url=" + DiaryShardingTest.SHARD_1_URL
+})
+@ActiveProfiles("test")
+class DiaryShardingTest {
+
+    static final String SHARD_0_URL = "jdbc:h2:mem:shard_test_0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1_URL = "jdbc:h2:mem:shard_test_1;DB_CLOSE_DELAY=-1";
+    private static final int SHARD_COUNT = 2;
+
+    private final List<JdbcTemplate> shards = Arrays.asList(
+            new JdbcTemplate(new DriverManagerDataSource(SHARD_0_URL, "sa", "password")),
+            new JdbcTemplate(new DriverManagerDataSource(SHARD_1_URL, "sa", "password")));
+
+    @Autowired
+    private DiaryService diaryService;
+
+    @Autowired
+    private DiarySearchService diarySearchService;
+
+    @AfterEach
+    void tearDown() {
+        for (JdbcTemplate shard : shards) {
+            shard.update("delete from diary");
+            shard.update("delete from diary_daily_count");
+            shard.update("delete from diary_change");
+        }
+    }
+
+    @Test
+    @DisplayName("예약한 ID 에도 작성자의 샤드 번호가 들어가고 그 샤드에 저장된다")
+    void reservedIdRoutesByAuthor() {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            // given
+            DiaryCreateRequest request = request("예약 제목", authorOnShard(shard));
+            Long reservedId = diaryService.reserveId(request);
+
+            // when
+            diaryService.createDiaries(Arrays.asList(request), Arrays.asList(reservedId));
+
+            // then
+            assertThat(DiaryShards.shardOfId(reservedId, SHARD_COUNT)).isEqualTo(shard);
+            assertThat(countById(shard, reservedId)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("작성자의 샤드에 저장되고 ID 에 샤드 번호가 들어가 ID 만으로 조회된다")
+    void createRoutesByAuthor() {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            // given
+            String author = authorOnShard(shard);
+
+            // when
+            DiaryResponse created = diaryService.createDiary(request("제목", author));
+
+            // then
+            assertThat(DiaryShards.shardOfId(created.getId(), SHARD_COUNT)).isEqualTo(shard);
+            assertThat(countById(shard, created.getId())).isEqualTo(1);
+            assertThat(countById(1 - shard, created.getId())).isZero();
+            assertThat(diaryService.getDiary(created.getId()).getAuthor()).isEqualTo(author);
+            assertThat(diaryService.getDiariesByAuthor(author, null, null, null).getContent())
+                    .extracting(DiarySummaryResponse::getId)
+                    .containsExactly(created.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("여러 작성자의 일괄 생성은 샤드별로 나눠 저장하고 요청 순서대로 반환한다")
+    void createDiariesSplitsByShard() {
+        // given
+        List<DiaryCreateRequest> requests = Arrays.asList(
+                request("첫째", authorOnShard(1)),
+                request("둘째", authorOnShard(0)),
+                request("셋째", authorOnShard(1)));
+
+        // when
+        List<DiaryResponse> created = diaryService.createDiaries(requests);
+
+        // then
+        assertThat(created).extracting(DiaryResponse::getTitle).containsExactly("첫째", "둘째", "셋째");
+        assertThat(created).extracting(diary -> DiaryShards.shardOfId(diary.getId(), SHARD_COUNT))
+                .containsExactly(1, 0, 1);
+        assertThat(shards.get(0).queryForObject("select count(*) from diary", Integer.class)).isEqualTo(1);
+        assertThat(shards.get(1).queryForObject("select count(*) from diary", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("전체 목록은 모든 샤드를 최신순으로 합치고 커서로 이어진다")
+    void getDiariesMergesShards() {
+        // given
+        List<DiaryResponse> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(diaryService.createDiary(request("일기 " + i, authorOnShard(i % SHARD_COUNT))));
+        }
+        List<Long> newestFirst = created.stream()
+                .sorted(Comparator.comparing(DiaryResponse::getCreatedAt)
+                        .thenComparing(DiaryResponse::getId)
+                        .reversed())
+                .map(DiaryResponse::getId)
+                .collect(Collectors.toList());
+
+        // when
+        CursorPageResponse<DiarySummaryResponse> first = diaryService.getDiaries(null, 3, null);
+        CursorPageResponse<DiarySummaryResponse> second = diaryService.getDiaries(first.getNextCursor(), 3, null);
+
+        // then
+        assertThat(ids(first)).containsExactlyElementsOf(newestFirst.subList(0, 3));
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(ids(second)).containsExactlyElementsOf(newestFirst.subList(3, 5));
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("검색 결과와 일괄 삭제는 여러 샤드에 걸쳐 처리된다")
+    void searchAndDeleteAcrossShards() {
+        // given
+        DiaryResponse onFirst = diaryService.createDiary(request("shardword 하나", authorOnShard(0)));
+        DiaryResponse onSecond = diaryService.createDiary(request("shardword 둘", authorOnShard(1)));
+
+        // when & then
+        assertThat(diarySearchService.search("shardword", null, null).getContent())
+                .extracting(DiaryResponse::getId)
+                .containsExactlyInAnyOrder(onFirst.getId(), onSecond.getId());
+
+        diaryService.deleteDiaries(Arrays.asList(onFirst.getId(), onSecond.getId()));
+        assertThat(diarySearchService.search("shardword", null, null).getContent()).isEmpty();
+        assertThat(diaryService.getDiaries(null, null, null).getContent()).isEmpty();
+    }
+
+    private int countById(int shard, Long id) {
+        return shards.get(shard).queryForObject("select count(*) from diary where id = ?", Integer.class, id);
+    }
+
+    private static List<Long> ids(CursorPageResponse<DiarySummaryResponse> page) {
+        return page.getContent().stream()
+                .map(DiarySummaryResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static String authorOnShard(int shard) {
+        for (int i = 0; ; i++) {
+            String author = "샤드작성자" + i;
+            if (DiaryShards.shardOf(author, SHARD_COUNT) == shard) {
+                return author;
+            }
+        }
+    }
+
+    private static DiaryCreateRequest request(String title, String author) {
+        return DiaryCreateRequest.builder()
+                .title(title)
+                .content(title + " 내용")
+                .author(author)
+                .build();
+    }
+}
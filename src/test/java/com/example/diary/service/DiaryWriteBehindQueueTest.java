@@ -0,0 +1,131 @@
+package com.example.diary.service;
+
+import com.example.diary.config.DiaryProperties;
+import com.example.diary.dto.DiaryCreateRequest;
+import com.example.diary.dto.DiaryResponse;
+import com.example.diary.dto.DiaryWriteStatusResponse;
+import com.example.diary.exception.DiaryQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DiaryWriteBehindQueueTest {
+
+    private DiaryService diaryService;
+    private DiaryProperties properties;
+    private DiaryShardTemplate diaryShardTemplate;
+    private List<Integer> batchSizes;
+
+    @BeforeEach
+    void setUp() {
+        diaryService = mock(DiaryService.class);
+        batchSizes = new ArrayList<>();
+        AtomicLong ids = new AtomicLong();
+        when(diaryService.reserveId(any())).thenAnswer(invocation -> ids.incrementAndGet());
+        when(diaryService.createDiaries(anyList(), anyList())).thenAnswer(invocation -> {
+            List<DiaryCreateRequest> requests = invocation.getArgument(0);
+            List<Long> reservedIds = invocation.getArgument(1);
+            batchSizes.add(requests.size());
+            if (requests.stream().anyMatch(request -> request.getTitle().startsWith("실패"))) {
+                throw new IllegalStateException("저장 실패");
+            }
+            List<DiaryResponse> responses = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                responses.add(DiaryResponse.builder()
+                        .id(reservedIds.get(i))
+                        .title(requests.get(i).getTitle())
+                        .build());
+            }
+            return responses;
+        });
+
+        properties = new DiaryProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setMaxDelay(Duration.ofSeconds(5));
+        diaryShardTemplate = new DiaryShardTemplate(properties, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 요청을 거절한다")
+    void rejectWhenFull() {
+        // given
+        properties.getWriteBehind().setQueueCapacity(1);
+        DiaryWriteBehindQueue queue = new DiaryWriteBehindQueue(diaryService, diaryShardTemplate, properties);
+        queue.submit(request("일기1"));
+
+        // when & then
+        assertThatThrownBy(() -> queue.submit(request("일기2")))
+                .isInstanceOf(DiaryQueueFullException.class);
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("종료 시 남은 요청을 한 배치로 저장하고 이후 요청은 거절한다")
+    void drainOnStop() {
+        // given
+        DiaryWriteBehindQueue queue = new DiaryWriteBehindQueue(diaryService, diaryShardTemplate, properties);
+        List<DiaryWriteStatusResponse> submitted = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            submitted.add(queue.submit(request("일기" + i)));
+        }
+        assertThat(submitted).extracting("status").containsOnly(DiaryWriteStatusResponse.Status.PENDING);
+        assertThat(submitted).extracting("diaryId").containsExactly(1L, 2L, 3L);
+
+        // when
+        queue.start();
+        queue.stop();
+
+        // then
+        assertThat(batchSizes).containsExactly(3);
+        assertThat(queue.size()).isZero();
+        for (DiaryWriteStatusResponse pending : submitted) {
+            DiaryWriteStatusResponse status = queue.getStatus(pending.getTicket());
+            assertThat(status.getStatus()).isEqualTo(DiaryWriteStatusResponse.Status.CREATED);
+            assertThat(status.getDiaryId()).isEqualTo(pending.getDiaryId());
+        }
+        assertThatThrownBy(() -> queue.submit(request("일기4")))
+                .isInstanceOf(DiaryQueueFullException.class);
+    }
+
+    @Test
+    @DisplayName("배치 저장이 실패하면 나눠서 다시 저장하고 실패한 요청만 FAILED 가 된다")
+    void isolateFailedRequest() {
+        // given
+        DiaryWriteBehindQueue queue = new DiaryWriteBehindQueue(diaryService, diaryShardTemplate, properties);
+        List<DiaryWriteStatusResponse> submitted = new ArrayList<>();
+        for (String title : new String[]{"일기1", "일기2", "실패할 일기", "일기4"}) {
+            submitted.add(queue.submit(request(title)));
+        }
+
+        // when
+        queue.start();
+        queue.stop();
+
+        // then
+        assertThat(submitted)
+                .extracting(pending -> queue.getStatus(pending.getTicket()).getStatus())
+                .containsExactly(DiaryWriteStatusResponse.Status.CREATED, DiaryWriteStatusResponse.Status.CREATED,
+                        DiaryWriteStatusResponse.Status.FAILED, DiaryWriteStatusResponse.Status.CREATED);
+        assertThat(batchSizes).containsExactly(4, 2, 2, 1, 1);
+    }
+
+    private DiaryCreateRequest request(String title) {
+        return DiaryCreateRequest.builder()
+                .title(title)
+                .content("내용")
+                .author("작성자")
+                .build();
+    }
+}